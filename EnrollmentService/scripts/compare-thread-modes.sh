@@ -0,0 +1,68 @@
+#!/usr/bin/env bash
+#
+# Load comparison between the default platform-thread mode and the virtual-thread mode.
+#
+# Builds the service with the java21 profile, starts it once per mode, seeds a user with a
+# few enrollments and drives GET /api/enrollments/me with `hey` (https://github.com/rakyll/hey).
+# Requires a Java 21 runtime, openssl, curl and hey on the PATH.
+#
+#   CONCURRENCY=800 REQUESTS=50000 ./scripts/compare-thread-modes.sh
+#   BASE_PROFILE=default ./scripts/compare-thread-modes.sh   # against the MySQL in application.yml
+#
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+CONCURRENCY=${CONCURRENCY:-400}
+REQUESTS=${REQUESTS:-20000}
+PORT=${PORT:-3003}
+BASE_PROFILE=${BASE_PROFILE:-local}
+JWT_SECRET=${JWT_SECRET:-JWT_SECRETJWT_SECRETJWT_SECRETJWT_SECRETJWT_SECRET}
+BASE_URL="http://localhost:${PORT}/api/enrollments"
+
+command -v hey >/dev/null || { echo "hey is required: go install github.com/rakyll/hey@latest" >&2; exit 1; }
+
+mvn -B -q -Pjava21 -DskipTests package
+JAR=$(ls target/EnrollmentService-*.jar | grep -v '\.original$' | head -1)
+
+b64url() { openssl base64 -A | tr '+/' '-_' | tr -d '='; }
+
+# HS256 token with the same 'id'/'role' claims UserService issues
+mint_token() {
+  local header payload signature
+  header=$(printf '{"alg":"HS256","typ":"JWT"}' | b64url)
+  payload=$(printf '{"id":"%s","role":"user","exp":%d}' "$1" $(( $(date +%s) + 3600 )) | b64url)
+  signature=$(printf '%s.%s' "$header" "$payload" | openssl dgst -sha256 -hmac "$JWT_SECRET" -binary | b64url)
+  echo "${header}.${payload}.${signature}"
+}
+
+run_mode() {
+  local mode=$1 profiles=$2
+  java -jar "$JAR" --spring.profiles.active="$profiles" --server.port="$PORT" > "target/load-${mode}.log" 2>&1 &
+  local pid=$!
+
+  for _ in $(seq 1 120); do
+    curl -s -o /dev/null "$BASE_URL/me" && break
+    sleep 0.5
+  done
+
+  local token
+  token=$(mint_token "load-${mode}")
+  for course in $(seq 1 20); do
+    curl -s -o /dev/null -X POST "$BASE_URL" \
+      -H "Authorization: Bearer ${token}" -H 'Content-Type: application/json' \
+      -d "{\"courseId\": ${course}}"
+  done
+
+  # Warm-up pass so both modes are measured with a compiled hot path
+  hey -n 2000 -c 50 -H "Authorization: Bearer ${token}" "$BASE_URL/me" > /dev/null
+
+  echo "=== ${mode} threads (profiles: ${profiles}, concurrency: ${CONCURRENCY}) ==="
+  hey -n "$REQUESTS" -c "$CONCURRENCY" -H "Authorization: Bearer ${token}" "$BASE_URL/me" \
+    | grep -E 'Requests/sec|Average|Slowest|  (50|95|99)% in|\[[0-9]{3}\]'
+
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+}
+
+run_mode platform "$BASE_PROFILE"
+run_mode virtual "${BASE_PROFILE},virtual"
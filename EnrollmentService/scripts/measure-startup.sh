@@ -0,0 +1,45 @@
+#!/usr/bin/env bash
+#
+# Time-to-first-request of the regular jar vs the fast-startup build (AOT + CDS).
+#
+# Each mode is started RUNS times; the script measures wall-clock time from launch until
+# GET /actuator/health answers, then reads the service's own enrollment.startup.first.request.
+#
+#   RUNS=5 ./scripts/measure-startup.sh
+#   PROFILE=prod ./scripts/measure-startup.sh   # against the MySQL in application.yml
+#
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+RUNS=${RUNS:-3}
+PORT=${PORT:-3003}
+PROFILE=${PROFILE:-local}
+
+mvn -B -q -Pfast-startup -DskipTests package
+JAR=$(ls target/EnrollmentService-*.jar | grep -v '\.original$' | head -1)
+APP_JAR="target/app/$(basename "$JAR")"
+
+now_ms() { date +%s%3N; }
+
+measure() {
+  local mode=$1; shift
+  for run in $(seq 1 "$RUNS"); do
+    local start end pid first
+    start=$(now_ms)
+    java "$@" --spring.profiles.active="$PROFILE" --server.port="$PORT" > "target/startup-${mode}-${run}.log" 2>&1 &
+    pid=$!
+    until curl -sf "http://localhost:${PORT}/actuator/health" > /dev/null; do
+      kill -0 "$pid" 2>/dev/null || { echo "$mode run $run failed, see target/startup-${mode}-${run}.log" >&2; exit 1; }
+      sleep 0.05
+    done
+    end=$(now_ms)
+    first=$(curl -s "http://localhost:${PORT}/actuator/metrics/enrollment.startup.first.request" \
+      | sed -n 's/.*"value":\([0-9.E]*\).*/\1/p')
+    printf '%-8s run %d: %5d ms until healthy (first request at %s s of JVM uptime)\n' \
+      "$mode" "$run" $((end - start)) "${first:-?}"
+    kill "$pid"; wait "$pid" 2>/dev/null || true
+  done
+}
+
+measure regular -jar "$JAR"
+measure fast -XX:SharedArchiveFile=target/app/application.jsa -Dspring.aot.enabled=true -jar "$APP_JAR"
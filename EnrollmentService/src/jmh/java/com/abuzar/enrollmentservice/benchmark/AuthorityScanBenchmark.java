@@ -0,0 +1,37 @@
+package com.abuzar.enrollmentservice.benchmark;
+
+import com.abuzar.enrollmentservice.util.RoleUtil;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Role checks the controller runs on every ownership-checked or write request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AuthorityScanBenchmark {
+
+    private Authentication user;
+
+    @Setup
+    public void setUp() {
+        user = new UsernamePasswordAuthenticationToken("user-42", null,
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+
+    @Benchmark
+    public boolean hasRoleAdmin() {
+        return RoleUtil.hasRole(user, "ADMIN");
+    }
+
+    @Benchmark
+    public String getRole() {
+        return RoleUtil.getRole(user);
+    }
+}
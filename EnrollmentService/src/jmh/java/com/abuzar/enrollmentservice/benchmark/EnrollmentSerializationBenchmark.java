@@ -0,0 +1,65 @@
+package com.abuzar.enrollmentservice.benchmark;
+
+import com.abuzar.enrollmentservice.models.Enrollment;
+import com.abuzar.enrollmentservice.models.Progress;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of an {@link Enrollment} with a populated progress list,
+ * configured the way Spring Boot configures the MVC ObjectMapper.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EnrollmentSerializationBenchmark {
+
+    @Param({"0", "20", "200"})
+    public int lessons;
+
+    private ObjectMapper objectMapper;
+    private Enrollment enrollment;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        enrollment = sampleEnrollment(lessons);
+    }
+
+    static Enrollment sampleEnrollment(int lessons) {
+        Enrollment e = new Enrollment();
+        e.setEnrollmentId(1001L);
+        e.setUserId("user-42");
+        e.setCourseId(7L);
+        e.setEnrolledAt(LocalDateTime.of(2024, 1, 15, 9, 30));
+        e.setStatus(Enrollment.Status.IN_PROGRESS);
+
+        List<Progress> progressList = new ArrayList<>(lessons);
+        for (int i = 0; i < lessons; i++) {
+            Progress p = new Progress();
+            p.setProgressId(5000L + i);
+            p.setEnrollment(e);
+            p.setLessonId(100L + i);
+            p.setCompleted(true);
+            p.setCompletedAt(LocalDateTime.of(2024, 2, 1, 10, 0).plusMinutes(i));
+            progressList.add(p);
+        }
+        e.setProgressList(progressList);
+        return e;
+    }
+
+    @Benchmark
+    public byte[] serializeEnrollment() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(enrollment);
+    }
+}
@@ -0,0 +1,52 @@
+package com.abuzar.enrollmentservice.benchmark;
+
+import com.abuzar.enrollmentservice.controller.EnrollmentController;
+import com.abuzar.enrollmentservice.dto.EnrollmentRequest;
+import com.abuzar.enrollmentservice.exception.GlobalExceptionHandler;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Error-body construction in {@link GlobalExceptionHandler} (403/404/409 and validation failures).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ErrorResponseBenchmark {
+
+    private GlobalExceptionHandler handler;
+    private ResponseStatusException notFound;
+    private MethodArgumentNotValidException invalidRequest;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        handler = new GlobalExceptionHandler();
+        notFound = new ResponseStatusException(HttpStatus.NOT_FOUND, "Enrollment not found");
+
+        BeanPropertyBindingResult errors = new BeanPropertyBindingResult(new EnrollmentRequest(), "enrollmentRequest");
+        errors.addError(new FieldError("enrollmentRequest", "courseId", "Course ID is required"));
+        MethodParameter parameter = new MethodParameter(
+                EnrollmentController.class.getMethod("enroll", EnrollmentRequest.class, Authentication.class), 0);
+        invalidRequest = new MethodArgumentNotValidException(parameter, errors);
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> responseStatusError() {
+        return handler.handleResponseStatusException(notFound);
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> validationError() {
+        return handler.handleValidationExceptions(invalidRequest);
+    }
+}
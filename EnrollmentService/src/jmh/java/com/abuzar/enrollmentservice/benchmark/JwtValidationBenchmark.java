@@ -0,0 +1,84 @@
+package com.abuzar.enrollmentservice.benchmark;
+
+import com.abuzar.enrollmentservice.config.JwtAuthFilter;
+import com.abuzar.enrollmentservice.util.JwtClaimsCache;
+import com.abuzar.enrollmentservice.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bearer-token validation as done on every authenticated request.
+ * {@code parseUncached} is the raw HMAC verification cost a cache miss pays.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JwtValidationBenchmark {
+
+    static final String SECRET = "JWT_SECRETJWT_SECRETJWT_SECRETJWT_SECRETJWT_SECRET";
+
+    private String token;
+    private JwtParser rawParser;
+    private JwtUtil jwtUtil;
+    private JwtAuthFilter filter;
+
+    @Setup
+    public void setUp() {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        token = mintToken(key, "user-42", "user");
+        rawParser = Jwts.parserBuilder().setSigningKey(key).build();
+
+        jwtUtil = new JwtUtil(new JwtClaimsCache(10_000, Duration.ofHours(1)));
+        ReflectionTestUtils.setField(jwtUtil, "jwtSecret", SECRET);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+        filter = new JwtAuthFilter(jwtUtil, new SimpleMeterRegistry());
+    }
+
+    static String mintToken(SecretKey key, String userId, String role) {
+        return Jwts.builder()
+                .claim("id", userId)
+                .claim("role", role)
+                .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    @Benchmark
+    public Claims parseUncached() {
+        return rawParser.parseClaimsJws(token).getBody();
+    }
+
+    @Benchmark
+    public Claims extractClaimsCached() {
+        return jwtUtil.extractAllClaims(token);
+    }
+
+    @Benchmark
+    public Object authFilter() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/enrollments/me");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        SecurityContextHolder.clearContext();
+        return principal;
+    }
+}
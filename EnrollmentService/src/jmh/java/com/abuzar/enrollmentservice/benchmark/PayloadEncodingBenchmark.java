@@ -0,0 +1,83 @@
+package com.abuzar.enrollmentservice.benchmark;
+
+import com.abuzar.enrollmentservice.models.Enrollment;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoding cost of a {@code /me} listing (20 enrollments) as JSON or CBOR, with and without
+ * Blackbird, and with the gzip step the server applies on top. Payload sizes are printed
+ * once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PayloadEncodingBenchmark {
+
+    private static final int ENROLLMENTS = 20;
+
+    @Param({"0", "20", "200"})
+    public int lessons;
+
+    @Param({"json", "cbor"})
+    public String format;
+
+    @Param({"false", "true"})
+    public boolean blackbird;
+
+    private ObjectMapper objectMapper;
+    private List<Enrollment> listing;
+
+    @Setup
+    public void setUp() throws IOException {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if ("cbor".equals(format)) {
+            builder.factory(new CBORFactory());
+        }
+        if (blackbird) {
+            builder.modulesToInstall(new BlackbirdModule());
+        }
+        objectMapper = builder.build();
+
+        listing = new ArrayList<>(ENROLLMENTS);
+        for (int i = 0; i < ENROLLMENTS; i++) {
+            Enrollment e = EnrollmentSerializationBenchmark.sampleEnrollment(lessons);
+            e.setEnrollmentId(1001L + i);
+            listing.add(e);
+        }
+
+        byte[] raw = serialize();
+        System.out.printf("%n%s, %d x %d lessons: %d bytes, %d bytes gzipped%n",
+                format, ENROLLMENTS, lessons, raw.length, gzip(raw).length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(listing);
+    }
+
+    @Benchmark
+    public byte[] serializeAndGzip() throws IOException {
+        return gzip(objectMapper.writeValueAsBytes(listing));
+    }
+
+    private static byte[] gzip(byte[] raw) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 4);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(raw);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,102 @@
+package com.abuzar.enrollmentservice.loadtest;
+
+import com.abuzar.enrollmentservice.loadtest.LoadTest.Endpoint;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+
+/**
+ * Blocking HTTP calls against the enrollment API, each timed into a {@link Recorder}.
+ * Tokens are signed the way UserService signs them and {@code JwtUtil} verifies them:
+ * HS256 over the UTF-8 bytes of the shared secret, with {@code id} and {@code role} claims.
+ */
+final class EnrollmentClient {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    private final SecretKey signingKey;
+
+    EnrollmentClient(String baseUrl, String secret) {
+        this.baseUrl = baseUrl + "/api/enrollments";
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    String mintToken(String userId) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .claim("id", userId)
+                .claim("role", "user")
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + Duration.ofHours(12).toMillis()))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    void enroll(VirtualUser user, long courseId, Recorder recorder) {
+        HttpResponse<byte[]> response = send(Endpoint.ENROLL, recorder, request(user, "")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"courseId\":" + courseId + "}")));
+        if (response != null && response.statusCode() == 200) {
+            try {
+                JsonNode body = objectMapper.readTree(response.body());
+                user.addEnrollment(body.path("enrollmentId").asLong());
+            } catch (IOException e) {
+                throw new IllegalStateException("Unexpected enroll response", e);
+            }
+        }
+    }
+
+    void completeLesson(VirtualUser user, long enrollmentId, long lessonId, Recorder recorder) {
+        send(Endpoint.COMPLETE_LESSON, recorder,
+                request(user, "/" + enrollmentId + "/lessons/" + lessonId + "/complete")
+                        .POST(HttpRequest.BodyPublishers.noBody()));
+    }
+
+    void myEnrollments(VirtualUser user, Recorder recorder) {
+        send(Endpoint.MY_ENROLLMENTS, recorder, request(user, "/me").GET());
+    }
+
+    void requestCertificate(VirtualUser user, long enrollmentId, Recorder recorder) {
+        send(Endpoint.CERTIFICATE, recorder,
+                request(user, "/" + enrollmentId + "/certificate").POST(HttpRequest.BodyPublishers.noBody()));
+    }
+
+    private HttpRequest.Builder request(VirtualUser user, String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(TIMEOUT)
+                .header("Authorization", "Bearer " + user.token);
+    }
+
+    private HttpResponse<byte[]> send(Endpoint endpoint, Recorder recorder, HttpRequest.Builder request) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            recorder.record(endpoint, System.nanoTime() - start, response.statusCode());
+            return response;
+        } catch (IOException e) {
+            recorder.record(endpoint, System.nanoTime() - start, Recorder.IO_ERROR);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.abuzar.enrollmentservice.loadtest;
+
+import com.abuzar.enrollmentservice.EnrollmentServiceApplication;
+import com.abuzar.enrollmentservice.client.StubCourseServer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end load test of the enrollment flow.
+ *
+ * <p>Unless {@code --base-url} is given, the service is started in this JVM on the {@code local}
+ * profile (embedded H2, random port), with course validation pointed at a {@link StubCourseServer}
+ * that knows courses {@code 1..courses} and answers after {@code course-latency-ms}. Each of {@code --users} synthetic users gets a JWT signed
+ * with {@code enrollment.jwt.secret} and a few seed enrollments; then {@code --concurrency}
+ * workers issue a weighted mix of requests for {@code --warmup} (not recorded) plus
+ * {@code --duration}, and a per-endpoint report is printed.
+ *
+ * <p>Options, all {@code --name=value}:
+ * {@code concurrency} (50), {@code duration} (60s), {@code warmup} (10s), {@code users} (500),
+ * {@code courses} (50), {@code course-latency-ms} (20), {@code lessons} (100), {@code seed-enrollments} (3),
+ * {@code mix} (me:50,complete:35,enroll:10,certificate:5),
+ * {@code base-url} and {@code secret} (for an already running service).
+ */
+@Slf4j
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+
+        ConfigurableApplicationContext app = null;
+        StubCourseServer courseServer = null;
+        String baseUrl = options.get("base-url", null);
+        String secret = options.get("secret", null);
+        if (baseUrl == null) {
+            courseServer = new StubCourseServer(options.getInt("courses", 50), options.getInt("course-latency-ms", 20));
+            log.info("Starting EnrollmentService on the embedded database, CourseService stub at {}",
+                    courseServer.baseUrl());
+            // Command-line arguments, so they take precedence over application.yml
+            app = new SpringApplicationBuilder(EnrollmentServiceApplication.class)
+                    .profiles("local")
+                    .run("--server.port=0",
+                            "--enrollment.courses.validation-enabled=true",
+                            "--enrollment.courses.base-url=" + courseServer.baseUrl());
+            baseUrl = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+            secret = app.getEnvironment().getProperty("enrollment.jwt.secret");
+        } else if (secret == null) {
+            throw new IllegalArgumentException("--secret is required together with --base-url");
+        }
+
+        try {
+            run(new EnrollmentClient(baseUrl, secret), options);
+        } finally {
+            if (app != null) {
+                app.close();
+            }
+            if (courseServer != null) {
+                log.info("CourseService stub served {} lookups", courseServer.requestCount());
+                courseServer.close();
+            }
+        }
+        System.exit(0);
+    }
+
+    private static void run(EnrollmentClient client, Options options) throws Exception {
+        int concurrency = options.getInt("concurrency", 50);
+        Duration duration = options.getDuration("duration", Duration.ofSeconds(60));
+        Duration warmup = options.getDuration("warmup", Duration.ofSeconds(10));
+        int courses = options.getInt("courses", 50);
+        int lessons = options.getInt("lessons", 100);
+        Mix mix = Mix.parse(options.get("mix", "me:50,complete:35,enroll:10,certificate:5"));
+
+        List<VirtualUser> users = new ArrayList<>();
+        for (int i = 0; i < options.getInt("users", 500); i++) {
+            String userId = "load-user-" + i;
+            users.add(new VirtualUser(userId, client.mintToken(userId)));
+        }
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        try {
+            int seedEnrollments = options.getInt("seed-enrollments", 3);
+            log.info("Seeding {} users with {} enrollments each", users.size(), seedEnrollments);
+            Recorder seedRecorder = new Recorder();
+            List<Future<?>> seeding = new ArrayList<>();
+            for (VirtualUser user : users) {
+                seeding.add(workers.submit(() -> {
+                    for (int i = 0; i < seedEnrollments; i++) {
+                        client.enroll(user, randomCourse(courses), seedRecorder);
+                    }
+                }));
+            }
+            for (Future<?> f : seeding) {
+                f.get();
+            }
+
+            log.info("Warming up for {} s with {} workers", warmup.toSeconds(), concurrency);
+            Recorder recorder = new Recorder();
+            long warmupEnd = System.nanoTime() + warmup.toNanos();
+            long end = warmupEnd + duration.toNanos();
+            List<Future<?>> running = new ArrayList<>();
+            for (int w = 0; w < concurrency; w++) {
+                running.add(workers.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < end) {
+                        VirtualUser user = users.get(random.nextInt(users.size()));
+                        Endpoint endpoint = mix.next(random);
+                        Long enrollmentId = user.randomEnrollment(random);
+                        if (enrollmentId == null && endpoint != Endpoint.MY_ENROLLMENTS) {
+                            endpoint = Endpoint.ENROLL;
+                        }
+                        switch (endpoint) {
+                            case ENROLL -> client.enroll(user, randomCourse(courses), recorder);
+                            case COMPLETE_LESSON -> client.completeLesson(user, enrollmentId,
+                                    1L + random.nextInt(lessons), recorder);
+                            case MY_ENROLLMENTS -> client.myEnrollments(user, recorder);
+                            case CERTIFICATE -> client.requestCertificate(user, enrollmentId, recorder);
+                        }
+                    }
+                }));
+            }
+            TimeUnit.NANOSECONDS.sleep(Math.max(0, warmupEnd - System.nanoTime()));
+            recorder.reset();
+            log.info("Measuring for {} s", duration.toSeconds());
+            for (Future<?> f : running) {
+                f.get();
+            }
+            recorder.printReport(duration, concurrency);
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private static long randomCourse(int courses) {
+        return 1L + ThreadLocalRandom.current().nextInt(courses);
+    }
+
+    enum Endpoint {
+        ENROLL("POST /api/enrollments"),
+        COMPLETE_LESSON("POST /{id}/lessons/{lessonId}/complete"),
+        MY_ENROLLMENTS("GET /api/enrollments/me"),
+        CERTIFICATE("POST /{id}/certificate");
+
+        final String label;
+
+        Endpoint(String label) {
+            this.label = label;
+        }
+    }
+
+    /** Weighted choice between endpoints, e.g. {@code me:50,complete:35,enroll:10,certificate:5}. */
+    private record Mix(Endpoint[] slots) {
+
+        static Mix parse(String spec) {
+            Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+            for (String part : spec.split(",")) {
+                String[] kv = part.trim().split(":");
+                Endpoint endpoint = switch (kv[0]) {
+                    case "enroll" -> Endpoint.ENROLL;
+                    case "complete" -> Endpoint.COMPLETE_LESSON;
+                    case "me" -> Endpoint.MY_ENROLLMENTS;
+                    case "certificate" -> Endpoint.CERTIFICATE;
+                    default -> throw new IllegalArgumentException("Unknown endpoint in --mix: " + kv[0]);
+                };
+                weights.put(endpoint, Integer.parseInt(kv[1]));
+            }
+            List<Endpoint> slots = new ArrayList<>();
+            weights.forEach((endpoint, weight) -> {
+                for (int i = 0; i < weight; i++) {
+                    slots.add(endpoint);
+                }
+            });
+            if (slots.isEmpty()) {
+                throw new IllegalArgumentException("--mix has no positive weights");
+            }
+            return new Mix(slots.toArray(Endpoint[]::new));
+        }
+
+        Endpoint next(ThreadLocalRandom random) {
+            return slots[random.nextInt(slots.length)];
+        }
+    }
+
+    private record Options(Map<String, String> values) {
+
+        static Options parse(String[] args) {
+            Map<String, String> values = new HashMap<>();
+            for (String arg : args) {
+                if (!arg.startsWith("--") || !arg.contains("=")) {
+                    throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+                }
+                int eq = arg.indexOf('=');
+                values.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+            return new Options(values);
+        }
+
+        String get(String name, String defaultValue) {
+            return values.getOrDefault(name, defaultValue);
+        }
+
+        int getInt(String name, int defaultValue) {
+            return values.containsKey(name) ? Integer.parseInt(values.get(name)) : defaultValue;
+        }
+
+        Duration getDuration(String name, Duration defaultValue) {
+            String value = values.get(name);
+            if (value == null) {
+                return defaultValue;
+            }
+            // Accepts 90, 90s, 5m
+            if (value.endsWith("m")) {
+                return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+            }
+            return Duration.ofSeconds(Long.parseLong(value.endsWith("s") ? value.substring(0, value.length() - 1) : value));
+        }
+    }
+}
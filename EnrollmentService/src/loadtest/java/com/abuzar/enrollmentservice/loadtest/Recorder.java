@@ -0,0 +1,98 @@
+package com.abuzar.enrollmentservice.loadtest;
+
+import com.abuzar.enrollmentservice.loadtest.LoadTest.Endpoint;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and outcome counts per endpoint. 409 (already enrolled, concurrent completion) is
+ * an expected answer under this workload and is reported apart from failures.
+ */
+final class Recorder {
+
+    static final int IO_ERROR = -1;
+
+    private volatile Map<Endpoint, EndpointStats> stats = fresh();
+
+    void record(Endpoint endpoint, long nanos, int status) {
+        stats.get(endpoint).record(nanos, status);
+    }
+
+    /** Drops everything recorded so far, e.g. at the end of the warm-up. */
+    void reset() {
+        stats = fresh();
+    }
+
+    void printReport(Duration duration, int concurrency) {
+        double seconds = duration.toMillis() / 1000.0;
+        System.out.printf("%n%d workers, %.0f s%n", concurrency, seconds);
+        System.out.printf("%-42s %9s %9s %9s %9s %10s %9s %9s %9s%n",
+                "endpoint", "requests", "ok", "409", "failed", "req/s", "p50 ms", "p99 ms", "max ms");
+        long total = 0;
+        for (Map.Entry<Endpoint, EndpointStats> entry : stats.entrySet()) {
+            EndpointStats s = entry.getValue();
+            HistogramSnapshot snapshot = s.latency.takeSnapshot();
+            long count = snapshot.count();
+            total += count;
+            System.out.printf("%-42s %9d %9d %9d %9d %10.1f %9.2f %9.2f %9.2f%n",
+                    entry.getKey().label, count, s.ok.sum(), s.conflict.sum(), s.failed.sum(), count / seconds,
+                    percentile(snapshot, 0.5), percentile(snapshot, 0.99), snapshot.max(TimeUnit.MILLISECONDS));
+        }
+        System.out.printf("%-42s %9d %39.1f%n", "total", total, total / seconds);
+    }
+
+    private static double percentile(HistogramSnapshot snapshot, double percentile) {
+        for (ValueAtPercentile value : snapshot.percentileValues()) {
+            if (value.percentile() == percentile) {
+                return value.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return Double.NaN;
+    }
+
+    private static Map<Endpoint, EndpointStats> fresh() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            stats.put(endpoint, new EndpointStats(Timer.builder("loadtest.request")
+                    .tag("endpoint", endpoint.name())
+                    .publishPercentiles(0.5, 0.99)
+                    .percentilePrecision(3)
+                    // One window for the whole run instead of Micrometer's rolling two minutes
+                    .distributionStatisticExpiry(Duration.ofDays(1))
+                    .distributionStatisticBufferLength(1)
+                    .register(registry)));
+        }
+        return stats;
+    }
+
+    private static final class EndpointStats {
+        final Timer latency;
+        final LongAdder ok = new LongAdder();
+        final LongAdder conflict = new LongAdder();
+        final LongAdder failed = new LongAdder();
+
+        EndpointStats(Timer latency) {
+            this.latency = latency;
+        }
+
+        void record(long nanos, int status) {
+            latency.record(nanos, TimeUnit.NANOSECONDS);
+            if (status >= 200 && status < 300) {
+                ok.increment();
+            } else if (status == 409) {
+                conflict.increment();
+            } else {
+                failed.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.abuzar.enrollmentservice.loadtest;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+
+/** A synthetic learner: its token and the enrollments it has created so far. */
+final class VirtualUser {
+
+    final String userId;
+    final String token;
+    private final List<Long> enrollments = new CopyOnWriteArrayList<>();
+
+    VirtualUser(String userId, String token) {
+        this.userId = userId;
+        this.token = token;
+    }
+
+    void addEnrollment(long enrollmentId) {
+        enrollments.add(enrollmentId);
+    }
+
+    Long randomEnrollment(ThreadLocalRandom random) {
+        int size = enrollments.size();
+        return size == 0 ? null : enrollments.get(random.nextInt(size));
+    }
+}
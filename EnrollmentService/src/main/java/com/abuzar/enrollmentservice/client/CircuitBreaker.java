@@ -0,0 +1,101 @@
+package com.abuzar.enrollmentservice.client;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Minimal lock-free circuit breaker. After {@code failureThreshold} consecutive failures it
+ * opens for {@code openDuration}; then a single trial call is let through, whose outcome
+ * closes the breaker or opens it again.
+ *
+ * <p>Callers report the outcome together with the {@link Permit} they were given, so a call
+ * that started before the breaker opened cannot close or re-open it when it finishes late:
+ * only the trial decides.
+ */
+final class CircuitBreaker {
+
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    enum Permit {
+        /** The breaker is open: do not call. */
+        DENIED,
+        /** A regular call while closed. */
+        CALL,
+        /** The single trial call after the open period. */
+        TRIAL
+    }
+
+    private static final long CLOSED = Long.MIN_VALUE;
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong openedAt = new AtomicLong(CLOSED);
+    private final AtomicBoolean trialInFlight = new AtomicBoolean();
+
+    CircuitBreaker(int failureThreshold, Duration openDuration) {
+        this(failureThreshold, openDuration, System::nanoTime);
+    }
+
+    CircuitBreaker(int failureThreshold, Duration openDuration, LongSupplier nanoClock) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /** Whether a call may be made now, and whether it is the trial call. */
+    Permit tryAcquire() {
+        long opened = openedAt.get();
+        if (opened == CLOSED) {
+            return Permit.CALL;
+        }
+        if (nanoClock.getAsLong() - opened < openNanos) {
+            return Permit.DENIED;
+        }
+        return trialInFlight.compareAndSet(false, true) ? Permit.TRIAL : Permit.DENIED;
+    }
+
+    void onSuccess(Permit permit) {
+        if (permit == Permit.TRIAL) {
+            consecutiveFailures.set(0);
+            openedAt.set(CLOSED);
+            trialInFlight.set(false);
+        } else if (permit == Permit.CALL && openedAt.get() == CLOSED) {
+            consecutiveFailures.set(0);
+        }
+        // A regular call finishing after the breaker opened says nothing about recovery
+    }
+
+    void onFailure(Permit permit) {
+        if (permit == Permit.TRIAL) {
+            // Still failing: stay open for another period
+            openedAt.set(nanoClock.getAsLong());
+            trialInFlight.set(false);
+        } else if (permit == Permit.CALL && openedAt.get() == CLOSED
+                && consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openedAt.compareAndSet(CLOSED, nanoClock.getAsLong());
+        }
+    }
+
+    State state() {
+        long opened = openedAt.get();
+        if (opened == CLOSED) {
+            return State.CLOSED;
+        }
+        return nanoClock.getAsLong() - opened < openNanos ? State.OPEN : State.HALF_OPEN;
+    }
+
+    /** Time until the next trial call is allowed, zero when not open. */
+    Duration remainingOpen() {
+        long opened = openedAt.get();
+        return opened == CLOSED ? Duration.ZERO
+                : Duration.ofNanos(Math.max(0, openNanos - (nanoClock.getAsLong() - opened)));
+    }
+}
@@ -0,0 +1,236 @@
+package com.abuzar.enrollmentservice.client;
+
+import com.abuzar.enrollmentservice.exception.RetryLaterException;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Checks that a course exists in CourseService ({@code GET /courses/{id}}).
+ *
+ * <p>Answers are cached: existing courses for {@code ttl}, missing ones for the shorter
+ * {@code negative-ttl}. Lookups run asynchronously through the cache, so concurrent requests
+ * for the same course wait on one HTTP call, and a caller that runs out of its {@code timeout}
+ * budget leaves the call running to fill the cache for the next one. Failures are never cached;
+ * repeated ones open a {@link CircuitBreaker} so a down CourseService costs no waiting at all.
+ * While the catalog cannot answer, enrollments are let through when {@code fail-open} is set
+ * and rejected with 503 otherwise.
+ */
+@Slf4j
+@Component
+public class CourseCatalogClient {
+
+    private static final String SERVICE_USER = "enrollment-service";
+    private static final Duration TOKEN_TTL = Duration.ofMinutes(10);
+
+    private final boolean enabled;
+    private final boolean failOpen;
+    private final String baseUrl;
+    private final Duration timeout;
+    private final HttpClient http;
+    private final SecretKey signingKey;
+    private final CircuitBreaker breaker;
+    private final AsyncLoadingCache<Long, Boolean> courses;
+
+    private final Counter found;
+    private final Counter notFound;
+    private final Counter unavailable;
+
+    // Service token for CourseService, re-minted shortly before it expires
+    private volatile String token;
+    private volatile long tokenRenewAt;
+
+    public CourseCatalogClient(@Value("${enrollment.courses.validation-enabled:true}") boolean enabled,
+                               @Value("${enrollment.courses.fail-open:true}") boolean failOpen,
+                               @Value("${enrollment.courses.base-url:http://localhost:3002}") String baseUrl,
+                               @Value("${enrollment.courses.timeout:300ms}") Duration timeout,
+                               @Value("${enrollment.courses.connect-timeout:200ms}") Duration connectTimeout,
+                               @Value("${enrollment.courses.cache.max-size:10000}") long maxSize,
+                               @Value("${enrollment.courses.cache.ttl:10m}") Duration ttl,
+                               @Value("${enrollment.courses.cache.negative-ttl:30s}") Duration negativeTtl,
+                               @Value("${enrollment.courses.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                               @Value("${enrollment.courses.circuit-breaker.open-duration:30s}") Duration openDuration,
+                               @Value("${enrollment.jwt.secret}") String jwtSecret,
+                               MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.failOpen = failOpen;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.timeout = timeout;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout)
+                .build();
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.breaker = new CircuitBreaker(failureThreshold, openDuration);
+        this.courses = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ExistsExpiry(ttl, negativeTtl))
+                .recordStats()
+                .buildAsync(this::load);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, courses.synchronous(), "courses");
+        Gauge.builder("enrollment.courses.circuit.open", breaker, b -> b.state() == CircuitBreaker.State.CLOSED ? 0 : 1)
+                .description("1 while calls to CourseService are suspended by the circuit breaker")
+                .register(meterRegistry);
+        this.found = lookups(meterRegistry, "found");
+        this.notFound = lookups(meterRegistry, "not_found");
+        this.unavailable = lookups(meterRegistry, "unavailable");
+        log.info("Course catalog client - enabled: {}, baseUrl: {}, timeout: {}, failOpen: {}",
+                enabled, this.baseUrl, timeout, failOpen);
+    }
+
+    /**
+     * Throws 404 if the course does not exist. When CourseService cannot answer within the
+     * timeout, returns normally if {@code fail-open} is set and throws 503 otherwise.
+     */
+    public void requireCourse(Long courseId) {
+        if (!enabled) {
+            return;
+        }
+        Boolean exists;
+        try {
+            exists = courses.get(courseId).get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            handleUnavailable(courseId, ex);
+            return;
+        } catch (ExecutionException | TimeoutException ex) {
+            handleUnavailable(courseId, ex instanceof ExecutionException ? ex.getCause() : ex);
+            return;
+        }
+        if (!exists) {
+            notFound.increment();
+            log.warn("Course {} does not exist", courseId);
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found");
+        }
+        found.increment();
+    }
+
+    private void handleUnavailable(Long courseId, Throwable cause) {
+        unavailable.increment();
+        if (failOpen) {
+            log.warn("Course catalog unavailable, accepting course {} unchecked: {}", courseId, cause.toString());
+            return;
+        }
+        log.warn("Course catalog unavailable, rejecting course {}: {}", courseId, cause.toString());
+        Duration retryAfter = breaker.remainingOpen();
+        throw new RetryLaterException(HttpStatus.SERVICE_UNAVAILABLE,
+                "Course catalog is unavailable, please retry later",
+                retryAfter.isZero() ? Duration.ofSeconds(5) : retryAfter);
+    }
+
+    private CompletableFuture<Boolean> load(Long courseId, Executor executor) {
+        CircuitBreaker.Permit permit = breaker.tryAcquire();
+        if (permit == CircuitBreaker.Permit.DENIED) {
+            return CompletableFuture.failedFuture(new IOException("CourseService circuit breaker is open"));
+        }
+        CompletableFuture<HttpResponse<Void>> call;
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/courses/" + courseId))
+                    .timeout(timeout)
+                    .header("Authorization", "Bearer " + serviceToken())
+                    .header("Accept", "application/json")
+                    .GET()
+                    .build();
+            call = http.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+        } catch (RuntimeException ex) {
+            // Report it, or a trial permit would never be handed back
+            breaker.onFailure(permit);
+            return CompletableFuture.failedFuture(ex);
+        }
+        return call
+                .thenApply(response -> switch (response.statusCode()) {
+                    case 200 -> true;
+                    case 404 -> false;
+                    default -> throw new IllegalStateException("CourseService answered " + response.statusCode());
+                })
+                .whenComplete((exists, ex) -> {
+                    if (ex == null) {
+                        breaker.onSuccess(permit);
+                    } else {
+                        breaker.onFailure(permit);
+                        log.debug("Course {} lookup failed: {}", courseId, ex.toString());
+                    }
+                });
+    }
+
+    private String serviceToken() {
+        long now = System.currentTimeMillis();
+        String current = token;
+        if (current != null && now < tokenRenewAt) {
+            return current;
+        }
+        // Racing threads may both mint one; either token is valid
+        current = Jwts.builder()
+                .claim("id", SERVICE_USER)
+                .claim("role", "service")
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + TOKEN_TTL.toMillis()))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
+                .compact();
+        tokenRenewAt = now + TOKEN_TTL.toMillis() / 2;
+        token = current;
+        return current;
+    }
+
+    private static Counter lookups(MeterRegistry registry, String outcome) {
+        return Counter.builder("enrollment.courses.lookups")
+                .description("Course existence checks by outcome")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    /** Existing courses are kept for {@code ttl}, missing ones for {@code negativeTtl}. */
+    private static final class ExistsExpiry implements Expiry<Long, Boolean> {
+
+        private final long ttlNanos;
+        private final long negativeTtlNanos;
+
+        private ExistsExpiry(Duration ttl, Duration negativeTtl) {
+            this.ttlNanos = ttl.toNanos();
+            this.negativeTtlNanos = negativeTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(Long courseId, Boolean exists, long currentTime) {
+            return exists ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(Long courseId, Boolean exists, long currentTime, long currentDuration) {
+            return expireAfterCreate(courseId, exists, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long courseId, Boolean exists, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.abuzar.enrollmentservice.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+/**
+ * Keeps the pooled id sequences of Enrollment, Progress and Certificate above the ids already
+ * in use. Databases created while those ids were AUTO_INCREMENT get their sequence tables from
+ * ddl-auto starting at 1 (MySQL emulates sequences with single-row tables), which would hand
+ * out taken ids.
+ *
+ * <p>Runs once the schema is in place and before the web server starts, so no insert can
+ * draw from a stale sequence. A sequence is only ever raised, so every start and every
+ * instance may run it. Native sequences (H2) are skipped: they are created by this version,
+ * never next to AUTO_INCREMENT rows.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+public class IdSequenceAlignment implements InitializingBean {
+
+    record IdSequence(String name, String table, String idColumn) {
+    }
+
+    static final List<IdSequence> SEQUENCES = List.of(
+            new IdSequence("enrollments_seq", "enrollments", "enrollment_id"),
+            new IdSequence("progress_seq", "progress", "progress_id"),
+            new IdSequence("certificates_seq", "certificates", "certificate_id"));
+
+    // One allocation block (allocationSize = 50) plus one: the first block handed out starts above MAX(id)
+    private static final long HEADROOM = 51;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdSequenceAlignment(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        SEQUENCES.forEach(this::align);
+    }
+
+    /** Raises the sequence table above {@code MAX(id)}; returns true if it had to move. */
+    boolean align(IdSequence sequence) {
+        if (!isTable(sequence.name())) {
+            return false;
+        }
+        Long maxId = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(" + sequence.idColumn() + "), 0) FROM " + sequence.table(), Long.class);
+        long required = maxId + HEADROOM;
+        int updated = jdbcTemplate.update(
+                "UPDATE " + sequence.name() + " SET next_val = ? WHERE next_val < ?", required, required);
+        if (updated > 0) {
+            log.info("Raised id sequence {} to {} (max {}.{} is {})",
+                    sequence.name(), required, sequence.table(), sequence.idColumn(), maxId);
+        }
+        return updated > 0;
+    }
+
+    private boolean isTable(String name) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) con -> {
+            try (ResultSet tables = con.getMetaData().getTables(con.getCatalog(), con.getSchema(), name,
+                    new String[]{"TABLE"})) {
+                return tables.next();
+            }
+        }));
+    }
+}
@@ -0,0 +1,59 @@
+package com.abuzar.enrollmentservice.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Jackson setup for responses: Blackbird accessors on every mapper Boot builds (unless
+ * {@code enrollment.jackson.blackbird} is off), and a CBOR converter for clients that send
+ * {@code Accept: application/cbor}. JSON stays the default.
+ */
+@Configuration
+public class JacksonConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder;
+
+    public JacksonConfig(ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder) {
+        this.objectMapperBuilder = objectMapperBuilder;
+    }
+
+    // Property access through generated lambdas instead of reflection
+    @Bean
+    @ConditionalOnProperty(name = "enrollment.jackson.blackbird", havingValue = "true", matchIfMissing = true)
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Same modules and date settings as the JSON mapper, just a CBOR encoder
+        ObjectMapper cborMapper = objectMapperBuilder.getObject()
+                .factory(new CBORFactory())
+                .build();
+        MappingJackson2CborHttpMessageConverter cbor = new MappingJackson2CborHttpMessageConverter(cborMapper);
+
+        // Replace Spring's default CBOR converter in place, after JSON, so Accept: */* still gets JSON
+        converters.removeIf(c -> c instanceof MappingJackson2CborHttpMessageConverter);
+        int position = converters.size();
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i) instanceof MappingJackson2HttpMessageConverter) {
+                position = i + 1;
+                break;
+            }
+        }
+        converters.add(position, cbor);
+    }
+}
@@ -2,11 +2,12 @@ package com.abuzar.enrollmentservice.config;
 
 import com.abuzar.enrollmentservice.util.JwtUtil;
 import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -20,10 +21,19 @@ import java.util.List;
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
+    private final MeterRegistry meterRegistry;
+    private final Timer validTokens;
+    private final Timer invalidTokens;
+
+    public JwtAuthFilter(JwtUtil jwtUtil, MeterRegistry meterRegistry) {
+        this.jwtUtil = jwtUtil;
+        this.meterRegistry = meterRegistry;
+        this.validTokens = validationTimer(meterRegistry, "valid");
+        this.invalidTokens = validationTimer(meterRegistry, "invalid");
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -43,10 +53,13 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         final String token = header.substring(7);
         log.debug("Extracted JWT token: {}...", token.substring(0, Math.min(20, token.length())));
 
+        Timer.Sample validation = Timer.start(meterRegistry);
+        Timer outcome = invalidTokens;
         try {
             Claims claims = jwtUtil.extractAllClaims(token);
-            String userId = jwtUtil.extractUserId(token);
-            String role = jwtUtil.extractRole(token);
+            outcome = validTokens;
+            String userId = jwtUtil.extractUserId(claims);
+            String role = jwtUtil.extractRole(claims);
 
             log.info("JWT validated successfully - userId: {}, role: {}", userId, role);
 
@@ -62,8 +75,17 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             }
         } catch (Exception ex) {
             log.error("JWT validation failed: {} - {}", ex.getClass().getSimpleName(), ex.getMessage());
+        } finally {
+            validation.stop(outcome);
         }
 
         filterChain.doFilter(request, response);
     }
+
+    private static Timer validationTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("enrollment.jwt.validation")
+                .description("Bearer token validation time, including claims cache lookups")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
 }
\ No newline at end of file
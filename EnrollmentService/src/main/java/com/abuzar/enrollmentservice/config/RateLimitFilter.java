@@ -0,0 +1,86 @@
+package com.abuzar.enrollmentservice.config;
+
+import com.abuzar.enrollmentservice.exception.RetryLaterException;
+import com.abuzar.enrollmentservice.util.RateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Per-user rate limiting, placed right after {@link JwtAuthFilter} so the bucket is keyed by the
+ * authenticated userId. Over-limit requests get 429 with {@code Retry-After}, rendered by
+ * {@code GlobalExceptionHandler} like any other error.
+ */
+@Slf4j
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+    private final HandlerExceptionResolver exceptionResolver;
+    private final boolean enabled;
+    private final Map<RateLimiter.Group, Counter> rejected = new EnumMap<>(RateLimiter.Group.class);
+
+    public RateLimitFilter(RateLimiter rateLimiter,
+                           @Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver,
+                           MeterRegistry meterRegistry,
+                           @Value("${enrollment.rate-limit.enabled:true}") boolean enabled) {
+        this.rateLimiter = rateLimiter;
+        this.exceptionResolver = exceptionResolver;
+        this.enabled = enabled;
+        for (RateLimiter.Group group : RateLimiter.Group.values()) {
+            rejected.put(group, Counter.builder("enrollment.ratelimit.rejected")
+                    .description("Requests rejected with 429 by the per-user rate limiter")
+                    .tag("group", group.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith("/api/enrollments");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated()) {
+            // No valid token: the authorization filter rejects it, nothing to count against
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        RateLimiter.Group group = RateLimiter.Group.of(request.getMethod(), request.getRequestURI());
+        long waitNanos = rateLimiter.tryAcquire(auth.getName(), group);
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        rejected.get(group).increment();
+        // Counted above; a client hammering the API must not flood the log as well
+        log.debug("Rate limit exceeded - user: {}, group: {}, {} {}",
+                auth.getName(), group, request.getMethod(), request.getRequestURI());
+        exceptionResolver.resolveException(request, response, null,
+                new RetryLaterException(HttpStatus.TOO_MANY_REQUESTS,
+                        "Too many requests, please slow down", Duration.ofNanos(waitNanos)));
+    }
+}
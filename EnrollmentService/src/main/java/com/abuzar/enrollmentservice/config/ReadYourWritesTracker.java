@@ -0,0 +1,51 @@
+package com.abuzar.enrollmentservice.config;
+
+import com.abuzar.enrollmentservice.events.EnrollmentEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Remembers which users committed a write in the last {@code window}, so their reads can skip
+ * a replica that may not have caught up yet. Writes are learned from committed
+ * {@link EnrollmentEvent}s: both the enrollment owner and the user who made the request count.
+ */
+public class ReadYourWritesTracker {
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(Duration window) {
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void on(EnrollmentEvent event) {
+        recordWrite(event.getUserId());
+        recordWrite(currentUser());
+    }
+
+    public void recordWrite(String userId) {
+        if (userId != null) {
+            recentWriters.put(userId, Boolean.TRUE);
+        }
+    }
+
+    /** True if the current request's user wrote within the window. */
+    public boolean currentUserWroteRecently() {
+        String userId = currentUser();
+        return userId != null && recentWriters.getIfPresent(userId) != null;
+    }
+
+    private static String currentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.isAuthenticated() ? auth.getName() : null;
+    }
+}
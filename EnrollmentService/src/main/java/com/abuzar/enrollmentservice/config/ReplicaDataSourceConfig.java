@@ -0,0 +1,76 @@
+package com.abuzar.enrollmentservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Read/write split, enabled with {@code enrollment.datasource.replica.enabled=true}.
+ * {@code spring.datasource} stays the primary; {@code enrollment.datasource.replica.hikari}
+ * configures the replica pool. {@code @Transactional(readOnly = true)} work is routed to the
+ * replica by {@link ReplicaRoutingDataSource}.
+ *
+ * <p>Routing is decided when a transaction first touches the database, so every transaction
+ * needs its own connection. That holds only with {@code spring.jpa.open-in-view=false}: an
+ * EntityManager that outlives the transaction keeps its first connection, and a write later in
+ * the same request would run on a replica connection. Startup fails if both are enabled.
+ */
+@Configuration
+@ConditionalOnProperty(name = "enrollment.datasource.replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    // Built the same way as Boot's own pool, so spring.datasource.hikari.* keeps applying
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource ds = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        ds.setPoolName(StringUtils.hasText(properties.getName()) ? properties.getName() : "primary");
+        return ds;
+    }
+
+    // Started on the first read, so a replica that is down does not block startup
+    @Bean
+    @ConfigurationProperties("enrollment.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource ds = new HikariDataSource();
+        ds.setPoolName("replica");
+        ds.setReadOnly(true);
+        // Pool creation never fails; an unreachable replica shows up as a connection timeout instead
+        ds.setInitializationFailTimeout(-1);
+        return ds;
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(
+            @Value("${enrollment.datasource.replica.read-your-writes-window:5s}") Duration window) {
+        return new ReadYourWritesTracker(window);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReadYourWritesTracker readYourWrites,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${enrollment.datasource.replica.retry-after-failure:30s}") Duration retryAfterFailure,
+                                 @Value("${spring.jpa.open-in-view:true}") boolean openInView) {
+        if (openInView) {
+            throw new IllegalStateException(
+                    "enrollment.datasource.replica.enabled requires spring.jpa.open-in-view=false");
+        }
+        return new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primary, replica, readYourWrites, retryAfterFailure, meterRegistry));
+    }
+}
@@ -0,0 +1,94 @@
+package com.abuzar.enrollmentservice.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Hands out replica connections to read-only transactions and primary connections to
+ * everything else. Must sit behind a {@code LazyConnectionDataSourceProxy}, so the connection
+ * is only fetched once the transaction's read-only flag is known.
+ *
+ * <p>A read goes to the primary anyway when the current user wrote within the read-your-writes
+ * window, or when the replica failed to hand out a connection within the last
+ * {@code retryAfterFailure}.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReadYourWritesTracker readYourWrites;
+    private final long retryAfterFailureNanos;
+
+    private final Counter toPrimary;
+    private final Counter toReplica;
+    private final Counter fallbacks;
+
+    private volatile long replicaDownUntil;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReadYourWritesTracker readYourWrites,
+                                    Duration retryAfterFailure, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.readYourWrites = readYourWrites;
+        this.retryAfterFailureNanos = retryAfterFailure.toNanos();
+        this.toPrimary = route(meterRegistry, "primary");
+        this.toReplica = route(meterRegistry, "replica");
+        this.fallbacks = route(meterRegistry, "fallback");
+        // Nothing has failed yet
+        this.replicaDownUntil = System.nanoTime();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (useReplica()) {
+            try {
+                Connection con = replica.getConnection();
+                toReplica.increment();
+                return con;
+            } catch (SQLException ex) {
+                replicaDownUntil = System.nanoTime() + retryAfterFailureNanos;
+                fallbacks.increment();
+                log.warn("Replica unavailable, reading from primary for {} s: {}",
+                        Duration.ofNanos(retryAfterFailureNanos).toSeconds(), ex.getMessage());
+            }
+        }
+        toPrimary.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Credentials are per pool; route as usual
+        return getConnection();
+    }
+
+    private boolean useReplica() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return false;
+        }
+        if (System.nanoTime() - replicaDownUntil < 0) {
+            return false;
+        }
+        if (readYourWrites.currentUserWroteRecently()) {
+            log.debug("Recent write by current user, reading from primary");
+            return false;
+        }
+        return true;
+    }
+
+    private static Counter route(MeterRegistry registry, String target) {
+        return Counter.builder("enrollment.datasource.connections")
+                .description("Connections handed out by the read/write router")
+                .tag("target", target)
+                .register(registry);
+    }
+}
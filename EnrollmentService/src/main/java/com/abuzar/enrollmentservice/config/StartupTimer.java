@@ -0,0 +1,60 @@
+package com.abuzar.enrollmentservice.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.support.ServletRequestHandledEvent;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Records time-to-first-request: JVM start until the first HTTP request has been handled,
+ * published as {@code enrollment.startup.first.request}, and that request's own latency as
+ * {@code enrollment.startup.first.request.latency}. Requests before the instance reports ready
+ * ({@link WarmUp}'s own) are not counted. Boot's own {@code application.ready.time} covers JVM
+ * start until the context is ready.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StartupTimer {
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicBoolean firstRequestSeen = new AtomicBoolean();
+    private volatile boolean acceptingTraffic;
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        log.info("Ready to serve after {} ms of JVM uptime", ManagementFactory.getRuntimeMXBean().getUptime());
+    }
+
+    @EventListener
+    public void onReadiness(AvailabilityChangeEvent<ReadinessState> event) {
+        acceptingTraffic = event.getState() == ReadinessState.ACCEPTING_TRAFFIC;
+    }
+
+    @EventListener
+    public void onRequestHandled(ServletRequestHandledEvent event) {
+        if (!acceptingTraffic || firstRequestSeen.get() || !firstRequestSeen.compareAndSet(false, true)) {
+            return;
+        }
+        long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        TimeGauge.builder("enrollment.startup.first.request", () -> uptime, TimeUnit.MILLISECONDS)
+                .description("Time from JVM start until the first HTTP request was handled")
+                .register(meterRegistry);
+        long latency = event.getProcessingTimeMillis();
+        TimeGauge.builder("enrollment.startup.first.request.latency", () -> latency, TimeUnit.MILLISECONDS)
+                .description("Processing time of the first HTTP request after the instance reported ready")
+                .register(meterRegistry);
+        log.info("First request ({}) handled after {} ms of JVM uptime, took {} ms",
+                event.getRequestUrl(), uptime, latency);
+    }
+}
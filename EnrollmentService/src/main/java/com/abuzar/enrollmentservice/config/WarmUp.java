@@ -0,0 +1,262 @@
+package com.abuzar.enrollmentservice.config;
+
+import com.abuzar.enrollmentservice.dto.EnrollmentRequest;
+import com.abuzar.enrollmentservice.dto.EnrollmentSummary;
+import com.abuzar.enrollmentservice.dto.LessonBatchRequest;
+import com.abuzar.enrollmentservice.models.Certificate;
+import com.abuzar.enrollmentservice.models.Enrollment;
+import com.abuzar.enrollmentservice.models.Progress;
+import com.abuzar.enrollmentservice.service.EnrollmentService;
+import com.abuzar.enrollmentservice.service.ProgressStore;
+import com.abuzar.enrollmentservice.util.JwtUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Exercises the hot paths before the instance takes traffic: JWT validation, Jackson
+ * serialization of the entities and DTOs, the read-only queries (Hibernate query plans and
+ * Hikari connections), and finally real requests through Tomcat, the security chain and MVC on
+ * the local port. Each step runs {@code iterations} times on {@code threads} threads, all
+ * within {@code max-duration}.
+ *
+ * <p>Runners finish before Boot publishes {@link ReadinessState#ACCEPTING_TRAFFIC}, so
+ * {@code /actuator/health/readiness} reports OUT_OF_SERVICE until warm-up is done. Step
+ * times are published as {@code enrollment.startup.warmup{step}}; a failing step is logged
+ * and never stops startup.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "enrollment.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class WarmUp implements ApplicationRunner {
+
+    private static final String USER_PREFIX = "warmup-";
+
+    private final ApplicationContext context;
+    private final Environment environment;
+    private final JwtUtil jwtUtil;
+    private final ObjectMapper objectMapper;
+    private final EnrollmentService enrollmentService;
+    private final ProgressStore progressStore;
+    private final MeterRegistry meterRegistry;
+    private final SecretKey signingKey;
+    private final int iterations;
+    private final int threads;
+    private final Duration maxDuration;
+    private final boolean http;
+
+    public WarmUp(ApplicationContext context,
+                  Environment environment,
+                  JwtUtil jwtUtil,
+                  ObjectMapper objectMapper,
+                  EnrollmentService enrollmentService,
+                  ProgressStore progressStore,
+                  MeterRegistry meterRegistry,
+                  @Value("${enrollment.jwt.secret}") String jwtSecret,
+                  @Value("${enrollment.warmup.iterations:100}") int iterations,
+                  @Value("${enrollment.warmup.threads:4}") int threads,
+                  @Value("${enrollment.warmup.max-duration:30s}") Duration maxDuration,
+                  @Value("${enrollment.warmup.http:true}") boolean http) {
+        this.context = context;
+        this.environment = environment;
+        this.jwtUtil = jwtUtil;
+        this.objectMapper = objectMapper;
+        this.enrollmentService = enrollmentService;
+        this.progressStore = progressStore;
+        this.meterRegistry = meterRegistry;
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.iterations = iterations;
+        this.threads = threads;
+        this.maxDuration = maxDuration;
+        this.http = http;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        AvailabilityChangeEvent.publish(context, ReadinessState.REFUSING_TRAFFIC);
+        log.info("Warm-up started - iterations: {}, threads: {}, maxDuration: {}", iterations, threads, maxDuration);
+        long start = System.nanoTime();
+        long deadline = start + maxDuration.toNanos();
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("warmup-"));
+        try {
+            step(pool, deadline, "jwt", i -> jwtUtil.extractUserId(token(i)));
+            step(pool, deadline, "serialization", this::serialize);
+            step(pool, deadline, "queries", this::query);
+            String port = environment.getProperty("local.server.port");
+            if (http && port != null) {
+                HttpClient client = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .connectTimeout(Duration.ofSeconds(2))
+                        .build();
+                step(pool, deadline, "http", i -> request(client, "http://localhost:" + port, i));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        long elapsed = System.nanoTime() - start;
+        record("total", elapsed);
+        log.info("Warm-up finished in {} ms, accepting traffic", TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+
+    private void step(ExecutorService pool, long deadline, String name, IntConsumer task) {
+        long start = System.nanoTime();
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        List<Future<?>> workers = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            workers.add(pool.submit(() -> {
+                int i;
+                while ((i = next.getAndIncrement()) < iterations && System.nanoTime() < deadline) {
+                    try {
+                        task.accept(i);
+                    } catch (RuntimeException ex) {
+                        if (failures.getAndIncrement() == 0) {
+                            log.warn("Warm-up step {} failed: {}", name, ex.toString());
+                        }
+                    }
+                }
+            }));
+        }
+        for (Future<?> worker : workers) {
+            try {
+                worker.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception ex) {
+                log.warn("Warm-up step {} aborted: {}", name, ex.toString());
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        record(name, elapsed);
+        log.info("Warm-up step {}: {} runs, {} failed, {} ms", name, Math.min(next.get(), iterations), failures.get(),
+                TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+
+    private void record(String step, long nanos) {
+        TimeGauge.builder("enrollment.startup.warmup", () -> nanos, TimeUnit.NANOSECONDS)
+                .description("Duration of each warm-up step before the instance reported ready")
+                .tag("step", step)
+                .register(meterRegistry);
+    }
+
+    // A different user per iteration: every token is a claims-cache miss and gets its own rate-limit bucket
+    private String token(int i) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .claim("id", USER_PREFIX + i)
+                .claim("role", "user")
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + Duration.ofMinutes(1).toMillis()))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    private void serialize(int i) {
+        try {
+            Enrollment enrollment = new Enrollment();
+            enrollment.setEnrollmentId((long) -i);
+            enrollment.setUserId(USER_PREFIX + i);
+            enrollment.setCourseId(1L);
+            List<Progress> progress = new ArrayList<>();
+            for (long lesson = 1; lesson <= 20; lesson++) {
+                Progress p = new Progress();
+                p.setEnrollment(enrollment);
+                p.setLessonId(lesson);
+                p.setCompleted(true);
+                p.setCompletedAt(LocalDateTime.now());
+                progress.add(p);
+            }
+            enrollment.setProgressList(progress);
+            Certificate certificate = new Certificate();
+            certificate.setEnrollment(enrollment);
+            certificate.setUrl("/warmup");
+
+            objectMapper.writeValueAsBytes(List.of(enrollment));
+            objectMapper.writeValueAsBytes(progress.get(0));
+            objectMapper.writeValueAsBytes(certificate);
+            objectMapper.writeValueAsBytes(List.of(new EnrollmentSummary(enrollment.getEnrollmentId(),
+                    enrollment.getUserId(), 1L, enrollment.getEnrolledAt(), enrollment.getStatus(), 20)));
+            objectMapper.readValue("{\"courseId\":1}", EnrollmentRequest.class);
+            objectMapper.readValue("{\"lessonIds\":[1,2,3]}", LessonBatchRequest.class);
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    // Read-only and for users that do not exist, so nothing is written
+    private void query(int i) {
+        String userId = USER_PREFIX + i;
+        enrollmentService.getMyEnrollmentsVersion(userId);
+        enrollmentService.getMyEnrollments(userId);
+        enrollmentService.getMyEnrollmentSummaries(userId);
+        enrollmentService.getMyEnrollmentSummaryPage(userId, null, 50);
+        enrollmentService.getMyEnrollmentPage(userId, null, 50);
+        progressStore.completedLessonIds((long) -i);
+        enrollmentService.findCertificate((long) -i);
+    }
+
+    private void request(HttpClient client, String baseUrl, int i) {
+        String token = token(i);
+        for (String path : List.of("/api/enrollments/me", "/api/enrollments/me/summary", "/api/enrollments/me/page")) {
+            HttpResponse<Void> response = send(client, HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Authorization", "Bearer " + token));
+            // Second round trip with the ETag exercises the 304 path
+            response.headers().firstValue("ETag").ifPresent(etag -> send(client,
+                    HttpRequest.newBuilder(URI.create(baseUrl + path))
+                            .header("Authorization", "Bearer " + token)
+                            .header("If-None-Match", etag)));
+        }
+    }
+
+    private static HttpResponse<Void> send(HttpClient client, HttpRequest.Builder builder) {
+        HttpRequest request = builder.timeout(Duration.ofSeconds(5)).GET().build();
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() >= 400) {
+                throw new IllegalStateException(request.uri().getPath() + " answered " + response.statusCode());
+            }
+            return response;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
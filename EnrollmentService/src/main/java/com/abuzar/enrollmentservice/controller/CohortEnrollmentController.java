@@ -0,0 +1,92 @@
+package com.abuzar.enrollmentservice.controller;
+
+import com.abuzar.enrollmentservice.dto.CohortEnrollmentRequest;
+import com.abuzar.enrollmentservice.dto.CohortEnrollmentResult;
+import com.abuzar.enrollmentservice.service.CohortEnrollmentService;
+import com.abuzar.enrollmentservice.util.RoleUtil;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Tag(name = "Cohort Enrollment", description = "Bulk enrollment of many users into one course (admin only)")
+@Slf4j
+@RestController
+@RequestMapping("/api/enrollments/admin/cohorts")
+@RequiredArgsConstructor
+public class CohortEnrollmentController {
+
+    private final CohortEnrollmentService cohorts;
+
+    @Operation(summary = "Enroll a list of users into a course")
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<CohortEnrollmentResult> enrollCohort(@RequestBody @Valid CohortEnrollmentRequest request,
+                                                               Authentication authentication) {
+        requireAdmin(authentication);
+        log.info("Cohort import requested - courseId: {}, users: {}, admin: {}",
+                request.getCourseId(), request.getUserIds().size(), authentication.getName());
+        return ResponseEntity.ok(cohorts.enroll(request.getCourseId(), request.getUserIds()));
+    }
+
+    /**
+     * Same as the JSON variant for a file upload: one user id per line, or a CSV whose first
+     * column is the user id. Blank lines, {@code #} comments and a {@code user_id} header are skipped.
+     * Lines are parsed as the import reads them, so an oversized file is rejected once it
+     * passes {@code max-users} ids instead of being buffered first.
+     */
+    @Operation(summary = "Enroll the users listed in a text or CSV file into a course")
+    @PostMapping(value = "/{courseId}", consumes = {MediaType.TEXT_PLAIN_VALUE, "text/csv"})
+    public ResponseEntity<CohortEnrollmentResult> enrollCohortFile(@PathVariable Long courseId,
+                                                                   InputStream body,
+                                                                   Authentication authentication) throws IOException {
+        requireAdmin(authentication);
+        log.info("Cohort file import requested - courseId: {}, admin: {}", courseId, authentication.getName());
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            AtomicBoolean seenUserId = new AtomicBoolean();
+            Iterable<String> userIds = () -> reader.lines()
+                    .map(CohortEnrollmentController::firstColumn)
+                    .filter(userId -> !userId.isEmpty() && !userId.startsWith("#"))
+                    .filter(userId -> seenUserId.getAndSet(true)
+                            || !userId.replace("_", "").equalsIgnoreCase("userid"))
+                    .iterator();
+            return ResponseEntity.ok(cohorts.enroll(courseId, userIds));
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private static String firstColumn(String line) {
+        int comma = line.indexOf(',');
+        String userId = (comma >= 0 ? line.substring(0, comma) : line).trim();
+        if (userId.startsWith("\"") && userId.endsWith("\"") && userId.length() >= 2) {
+            userId = userId.substring(1, userId.length() - 1).trim();
+        }
+        return userId;
+    }
+
+    private static void requireAdmin(Authentication authentication) {
+        if (!RoleUtil.hasRole(authentication, "ADMIN")) {
+            log.warn("Access denied - user: {} attempted a cohort import", authentication.getName());
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Admin role required");
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.abuzar.enrollmentservice.controller;
+
+import com.abuzar.enrollmentservice.dto.CourseAnalytics;
+import com.abuzar.enrollmentservice.service.CourseStatsService;
+import com.abuzar.enrollmentservice.util.RoleUtil;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+@Tag(name = "Enrollment Analytics", description = "Per-course completion analytics (admin only)")
+@Slf4j
+@RestController
+@RequestMapping("/api/enrollments/analytics")
+@RequiredArgsConstructor
+public class CourseAnalyticsController {
+
+    private final CourseStatsService courseStats;
+
+    @Operation(summary = "Get completion rate, active learners and average lessons completed for a course")
+    @GetMapping("/courses/{courseId}")
+    public ResponseEntity<CourseAnalytics> getCourseAnalytics(@PathVariable Long courseId,
+                                                              Authentication authentication) {
+        requireAdmin(authentication);
+        return ResponseEntity.ok(courseStats.getAnalytics(courseId));
+    }
+
+    @Operation(summary = "Recompute a course's counters from the enrollment and progress tables")
+    @PostMapping("/courses/{courseId}/rebuild")
+    public ResponseEntity<CourseAnalytics> rebuildCourseAnalytics(@PathVariable Long courseId,
+                                                                  Authentication authentication) {
+        requireAdmin(authentication);
+        log.info("Rebuilding course stats - courseId: {}, user: {}", courseId, authentication.getName());
+        return ResponseEntity.ok(courseStats.rebuild(courseId));
+    }
+
+    private static void requireAdmin(Authentication authentication) {
+        if (!RoleUtil.hasRole(authentication, "ADMIN")) {
+            log.warn("Access denied - user: {} attempted to read course analytics", authentication.getName());
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Admin role required");
+        }
+    }
+}
@@ -1,19 +1,40 @@
 package com.abuzar.enrollmentservice.controller;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import com.abuzar.enrollmentservice.client.CourseCatalogClient;
+import com.abuzar.enrollmentservice.dto.CertificateJob;
+import com.abuzar.enrollmentservice.dto.EnrollmentPage;
 import com.abuzar.enrollmentservice.dto.EnrollmentRequest;
-import com.abuzar.enrollmentservice.models.Certificate;
+import com.abuzar.enrollmentservice.dto.EnrollmentSnapshot;
+import com.abuzar.enrollmentservice.dto.EnrollmentSummary;
+import com.abuzar.enrollmentservice.dto.EnrollmentVersion;
+import com.abuzar.enrollmentservice.dto.LessonBatchRequest;
 import com.abuzar.enrollmentservice.models.Enrollment;
 import com.abuzar.enrollmentservice.models.Progress;
+import com.abuzar.enrollmentservice.service.CertificateJobService;
+import com.abuzar.enrollmentservice.service.CertificateRenderer;
 import com.abuzar.enrollmentservice.service.EnrollmentService;
+import com.abuzar.enrollmentservice.service.EnrollmentStreamWriter;
+import com.abuzar.enrollmentservice.service.EnrollmentUpdateStream;
+import com.abuzar.enrollmentservice.util.RoleUtil;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 @Tag(name = "Enrollment Management", description = "Endpoints for enrollment, progress tracking, and certificates")
 @Slf4j
@@ -22,7 +43,17 @@ import java.util.List;
 @RequiredArgsConstructor
 public class EnrollmentController {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int STREAM_BATCH_SIZE = 500;
+    // Clients may keep the response but must revalidate it (cheap with If-None-Match)
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final EnrollmentService service;
+    private final EnrollmentStreamWriter streamWriter;
+    private final CertificateJobService certificateJobs;
+    private final CertificateRenderer certificateRenderer;
+    private final EnrollmentUpdateStream updateStream;
+    private final CourseCatalogClient courseCatalog;
 
     @Operation(summary = "Enroll a student in a course")
     @PostMapping
@@ -35,6 +66,8 @@ public class EnrollmentController {
                 authentication.getAuthorities());
 
         String userId = authentication.getName();
+        // Before the transaction, so a slow catalog lookup never holds a database connection
+        courseCatalog.requireCourse(request.getCourseId());
         Enrollment enrollment = service.enroll(userId, request.getCourseId());
 
         log.info("Enrollment created successfully - enrollmentId: {}, userId: {}, courseId: {}",
@@ -47,29 +80,109 @@ public class EnrollmentController {
 
     @Operation(summary = "Get all enrollments of the logged-in user")
     @GetMapping("/me")
-    public ResponseEntity<List<Enrollment>> myEnrollments(Authentication authentication) {
+    public ResponseEntity<List<Enrollment>> myEnrollments(Authentication authentication, WebRequest request) {
         log.info("Fetching enrollments for user: {}", authentication.getName());
         String userId = authentication.getName();
+        EnrollmentVersion version = service.getMyEnrollmentsVersion(userId);
+        if (request.checkNotModified(version.eTag())) {
+            log.info("Enrollments of user {} not modified", userId);
+            return null;
+        }
         List<Enrollment> enrollments = service.getMyEnrollments(userId);
         log.info("Found {} enrollments for user: {}", enrollments.size(), userId);
-        return ResponseEntity.ok(enrollments);
+        return ResponseEntity.ok().cacheControl(REVALIDATE).eTag(version.eTag()).body(enrollments);
+    }
+
+
+    @Operation(summary = "Get a lightweight summary of the logged-in user's enrollments with completed-lesson counts")
+    @GetMapping("/me/summary")
+    public ResponseEntity<List<EnrollmentSummary>> myEnrollmentSummaries(Authentication authentication,
+                                                                         WebRequest request) {
+        log.info("Fetching enrollment summaries for user: {}", authentication.getName());
+        String userId = authentication.getName();
+        EnrollmentVersion version = service.getMyEnrollmentsVersion(userId);
+        if (request.checkNotModified(version.eTag())) {
+            return null;
+        }
+        List<EnrollmentSummary> summaries = service.getMyEnrollmentSummaries(userId);
+        log.info("Found {} enrollment summaries for user: {}", summaries.size(), userId);
+        return ResponseEntity.ok().cacheControl(REVALIDATE).eTag(version.eTag()).body(summaries);
     }
 
 
+    @Operation(summary = "Get one keyset page of the logged-in user's enrollments")
+    @GetMapping("/me/page")
+    public ResponseEntity<EnrollmentPage<?>> myEnrollmentPage(@RequestParam(required = false) Long after,
+                                                              @RequestParam(defaultValue = "50") int limit,
+                                                              @RequestParam(defaultValue = "false") boolean summary,
+                                                              Authentication authentication) {
+        String userId = authentication.getName();
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        log.info("Fetching enrollment page for user: {}, after: {}, limit: {}, summary: {}",
+                userId, after, pageSize, summary);
+        EnrollmentPage<?> page = summary
+                ? service.getMyEnrollmentSummaryPage(userId, after, pageSize)
+                : service.getMyEnrollmentPage(userId, after, pageSize);
+        return ResponseEntity.ok(page);
+    }
+
+
+    @Operation(summary = "Stream all enrollments of the logged-in user as a JSON array")
+    @GetMapping("/me/stream")
+    public ResponseEntity<StreamingResponseBody> streamMyEnrollments(
+            @RequestParam(defaultValue = "false") boolean summary,
+            Authentication authentication) {
+        String userId = authentication.getName();
+        log.info("Streaming enrollments for user: {}, summary: {}", userId, summary);
+        StreamingResponseBody body = out -> streamWriter.writeMyEnrollments(userId, summary, STREAM_BATCH_SIZE, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+
+    /**
+     * Answers 304 when {@code If-None-Match} carries the current ETag; that check costs the
+     * cached ownership lookup plus one version query, without loading progress or serializing.
+     */
     @Operation(summary = "Get a specific enrollment by ID")
     @GetMapping("/{enrollmentId}")
     public ResponseEntity<Enrollment> getEnrollment(@PathVariable Long enrollmentId,
-                                                    Authentication authentication) {
+                                                    Authentication authentication,
+                                                    WebRequest request) {
         log.info("Fetching enrollment: {}", enrollmentId);
-        Enrollment e = service.getEnrollment(enrollmentId);
+        EnrollmentSnapshot snapshot = service.getEnrollmentSnapshot(enrollmentId);
         String currentUser = authentication.getName();
 
-        if (!e.getUserId().equals(currentUser) && !hasRole(authentication, "ADMIN")) {
+        if (!snapshot.getUserId().equals(currentUser) && !RoleUtil.hasRole(authentication, "ADMIN")) {
             log.warn("Access denied - user: {} attempted to access enrollment: {} owned by: {}",
-                    currentUser, enrollmentId, e.getUserId());
+                    currentUser, enrollmentId, snapshot.getUserId());
             return ResponseEntity.status(403).build();
         }
-        return ResponseEntity.ok(e);
+
+        // Read before the body: a change in between makes the body newer than the ETag, which
+        // only costs the client one more full response
+        EnrollmentVersion version = service.getEnrollmentVersion(enrollmentId);
+        if (request.checkNotModified(version.eTag())) {
+            return null;
+        }
+        Enrollment e = service.getEnrollmentWithProgress(enrollmentId);
+        return ResponseEntity.ok().cacheControl(REVALIDATE).eTag(version.eTag()).body(e);
+    }
+
+
+    /**
+     * Server-Sent Events with the enrollment's progress: a {@code snapshot} event first, then
+     * {@code lesson-completed} and {@code certificate-issued} deltas as they are committed.
+     */
+    @Operation(summary = "Stream progress and status updates of an enrollment (Server-Sent Events)")
+    @GetMapping(value = "/{enrollmentId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter enrollmentEvents(@PathVariable Long enrollmentId,
+                                       Authentication authentication) {
+        String userId = authentication.getName();
+        String role = RoleUtil.getRole(authentication);
+        log.info("Opening event stream - enrollmentId: {}, user: {}", enrollmentId, userId);
+        return updateStream.subscribe(service.getOwnedEnrollment(enrollmentId, userId, role, "watch progress"));
     }
 
 
@@ -81,43 +194,84 @@ public class EnrollmentController {
         log.info("Marking lesson complete - enrollmentId: {}, lessonId: {}, user: {}",
                 enrollmentId, lessonId, authentication.getName());
         String userId = authentication.getName();
-        String role = getRole(authentication);
+        String role = RoleUtil.getRole(authentication);
         Progress progress = service.markLessonComplete(enrollmentId, lessonId, userId, role);
         log.info("Lesson marked complete - progressId: {}", progress.getProgressId());
         return ResponseEntity.ok(progress);
     }
 
+    @Operation(summary = "Mark many lessons of one enrollment as complete in a single request")
+    @PostMapping("/{enrollmentId}/lessons/complete")
+    public ResponseEntity<List<Progress>> markLessonsComplete(@PathVariable Long enrollmentId,
+                                                              @RequestBody @Valid LessonBatchRequest request,
+                                                              Authentication authentication) {
+        log.info("Marking {} lessons complete - enrollmentId: {}, user: {}",
+                request.getLessonIds().size(), enrollmentId, authentication.getName());
+        String userId = authentication.getName();
+        String role = RoleUtil.getRole(authentication);
+        List<Progress> progress = service.markLessonsComplete(enrollmentId, request.getLessonIds(), userId, role);
+        log.info("Lessons marked complete - enrollmentId: {}, count: {}", enrollmentId, progress.size());
+        return ResponseEntity.ok(progress);
+    }
+
+    @Operation(summary = "List the lesson ids completed in an enrollment")
+    @GetMapping("/{enrollmentId}/lessons/completed")
+    public ResponseEntity<List<Long>> completedLessons(@PathVariable Long enrollmentId,
+                                                       Authentication authentication) {
+        String userId = authentication.getName();
+        String role = RoleUtil.getRole(authentication);
+        return ResponseEntity.ok(service.getCompletedLessonIds(enrollmentId, userId, role));
+    }
+
     /**
-     * Generate a course completion certificate
+     * Request a course completion certificate. Rendering runs in the background; the response
+     * is a job handle to poll (202), or the finished job if the certificate already exists (200).
      */
     @Operation(summary = "Generate a certificate for a completed course")
     @PostMapping("/{enrollmentId}/certificate")
-    public ResponseEntity<Certificate> generateCertificate(@PathVariable Long enrollmentId,
-                                                           Authentication authentication) {
+    public ResponseEntity<CertificateJob> generateCertificate(@PathVariable Long enrollmentId,
+                                                              Authentication authentication) {
         log.info("Generating certificate - enrollmentId: {}, user: {}",
                 enrollmentId, authentication.getName());
         String userId = authentication.getName();
-        String role = getRole(authentication);
-        Certificate certificate = service.generateCertificate(enrollmentId, userId, role);
-        log.info("Certificate generated - certificateId: {}", certificate.getCertificateId());
-        return ResponseEntity.ok(certificate);
+        String role = RoleUtil.getRole(authentication);
+        CertificateJob job = certificateJobs.submit(enrollmentId, userId, role);
+        if (job.getStatus() == CertificateJob.Status.COMPLETED) {
+            log.info("Certificate already issued - certificateId: {}", job.getCertificateId());
+            return ResponseEntity.ok(job);
+        }
+        log.info("Certificate job accepted - jobId: {}, status: {}", job.getJobId(), job.getStatus());
+        return ResponseEntity.accepted()
+                .location(URI.create(job.getStatusUrl()))
+                .body(job);
     }
 
 
-    private boolean hasRole(Authentication auth, String role) {
-        return auth.getAuthorities()
-                .stream()
-                .map(GrantedAuthority::getAuthority)
-                .anyMatch(a -> a.equals("ROLE_" + role));
+    @Operation(summary = "Get the status of a certificate generation job")
+    @GetMapping("/{enrollmentId}/certificate/jobs/{jobId}")
+    public ResponseEntity<CertificateJob> getCertificateJob(@PathVariable Long enrollmentId,
+                                                            @PathVariable String jobId,
+                                                            Authentication authentication) {
+        String userId = authentication.getName();
+        String role = RoleUtil.getRole(authentication);
+        return ResponseEntity.ok(certificateJobs.getJob(enrollmentId, jobId, userId, role));
     }
 
-    private String getRole(Authentication auth) {
-        return auth.getAuthorities()
-                .stream()
-                .filter(a -> a.getAuthority().startsWith("ROLE_"))
-                .findFirst()
-                .map(GrantedAuthority::getAuthority)
-                .map(s -> s.replace("ROLE_", ""))
-                .orElse("USER");
+
+    @Operation(summary = "Download the certificate PDF")
+    @GetMapping(value = "/{enrollmentId}/certificate/file", produces = MediaType.APPLICATION_PDF_VALUE)
+    public ResponseEntity<Resource> downloadCertificate(@PathVariable Long enrollmentId,
+                                                        Authentication authentication) {
+        String userId = authentication.getName();
+        String role = RoleUtil.getRole(authentication);
+        service.getOwnedEnrollment(enrollmentId, userId, role, "view certificates");
+        Path file = certificateRenderer.pathFor(enrollmentId);
+        if (service.findCertificate(enrollmentId) == null || !Files.isReadable(file)) {
+            log.warn("Certificate file not available for enrollment: {}", enrollmentId);
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"certificate-" + enrollmentId + ".pdf\"")
+                .body(new FileSystemResource(file));
     }
-}
\ No newline at end of file
+}
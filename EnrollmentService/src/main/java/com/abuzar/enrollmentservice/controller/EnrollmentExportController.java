@@ -0,0 +1,65 @@
+package com.abuzar.enrollmentservice.controller;
+
+import com.abuzar.enrollmentservice.service.EnrollmentExporter;
+import com.abuzar.enrollmentservice.util.RoleUtil;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.Locale;
+
+@Tag(name = "Enrollment Export", description = "Full table dumps for admins and the data team")
+@Slf4j
+@RestController
+@RequestMapping("/api/enrollments/admin/export")
+@RequiredArgsConstructor
+public class EnrollmentExportController {
+
+    private final EnrollmentExporter exporter;
+
+    /**
+     * Streams a whole table ({@code enrollments}, {@code progress} or {@code certificates}).
+     * Written on the request thread straight to the servlet response rather than as a
+     * {@code StreamingResponseBody}, so large dumps are not cut off by the async request timeout.
+     */
+    @Operation(summary = "Export a table as NDJSON or CSV")
+    @GetMapping("/{table}")
+    public void export(@PathVariable String table,
+                       @RequestParam(defaultValue = "ndjson") String format,
+                       Authentication authentication,
+                       HttpServletResponse response) throws IOException {
+        if (!RoleUtil.hasRole(authentication, "ADMIN")) {
+            log.warn("Access denied - user: {} attempted to export {}", authentication.getName(), table);
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Admin role required");
+        }
+        EnrollmentExporter.Table exportTable = parse(EnrollmentExporter.Table.class, table, "table");
+        EnrollmentExporter.Format exportFormat = parse(EnrollmentExporter.Format.class, format, "format");
+
+        log.info("Export started - table: {}, format: {}, user: {}", exportTable, exportFormat, authentication.getName());
+        response.setContentType(exportFormat.contentType);
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + exportTable.fileName(exportFormat) + "\"");
+        exporter.export(exportTable, exportFormat, response.getOutputStream());
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> type, String value, String name) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown export " + name + ": " + value);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.abuzar.enrollmentservice.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Handle for an asynchronous certificate generation. Instances are immutable snapshots;
+ * every state change publishes a new one.
+ */
+@Getter
+@Builder(toBuilder = true)
+public class CertificateJob {
+
+    public enum Status {
+        QUEUED, RENDERING, STORING, COMPLETED, FAILED
+    }
+
+    private final String jobId;
+    private final Long enrollmentId;
+    private final Status status;
+    private final String statusUrl;
+    private final Long certificateId;
+    private final String certificateUrl;
+    private final String message;
+    private final LocalDateTime submittedAt;
+    private final LocalDateTime updatedAt;
+}
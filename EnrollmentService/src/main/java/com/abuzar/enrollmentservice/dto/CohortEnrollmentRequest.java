@@ -0,0 +1,18 @@
+package com.abuzar.enrollmentservice.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class CohortEnrollmentRequest {
+
+    @NotNull(message = "Course ID is required")
+    private Long courseId;
+
+    @NotEmpty(message = "At least one user ID is required")
+    private List<@NotBlank(message = "User ID must not be blank") String> userIds;
+}
@@ -0,0 +1,39 @@
+package com.abuzar.enrollmentservice.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Outcome of a cohort import. Each chunk commits on its own, so a failed chunk leaves the
+ * others enrolled; re-submitting the same cohort only enrolls the users still missing.
+ */
+@Getter
+@Builder
+public class CohortEnrollmentResult {
+
+    public enum ChunkStatus {
+        COMMITTED, FAILED
+    }
+
+    private final Long courseId;
+    private final int received;
+    private final int unique;
+    private final int enrolled;
+    private final int alreadyEnrolled;
+    private final int failed;
+    private final long durationMs;
+    private final List<Chunk> chunks;
+
+    @Getter
+    @Builder
+    public static class Chunk {
+        private final int index;
+        private final int size;
+        private final ChunkStatus status;
+        private final int enrolled;
+        private final int alreadyEnrolled;
+        private final String message;
+    }
+}
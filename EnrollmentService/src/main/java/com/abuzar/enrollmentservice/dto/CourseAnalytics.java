@@ -0,0 +1,24 @@
+package com.abuzar.enrollmentservice.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Completion analytics for one course, derived from the {@code course_stats} counters.
+ */
+@Getter
+@Builder
+public class CourseAnalytics {
+
+    private final Long courseId;
+    private final long enrollments;
+    private final long activeLearners;
+    private final long completions;
+    private final long cancellations;
+    private final double completionRate;
+    private final long lessonsCompleted;
+    private final double averageLessonsCompleted;
+    private final LocalDateTime updatedAt;
+}
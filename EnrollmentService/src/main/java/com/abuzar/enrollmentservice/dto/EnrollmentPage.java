@@ -0,0 +1,20 @@
+package com.abuzar.enrollmentservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One keyset page of enrollments. {@code nextCursor} is the last {@code enrollmentId} of this
+ * page and is passed back as {@code after}; it is {@code null} once the last page is reached.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentPage<T> {
+
+    private List<T> items;
+    private Long nextCursor;
+}
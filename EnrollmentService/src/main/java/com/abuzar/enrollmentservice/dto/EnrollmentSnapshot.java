@@ -0,0 +1,23 @@
+package com.abuzar.enrollmentservice.dto;
+
+import com.abuzar.enrollmentservice.models.Enrollment;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Immutable copy of the enrollment columns needed for ownership checks, safe to cache
+ * and share across threads (unlike the managed {@link Enrollment} entity).
+ */
+@Getter
+@AllArgsConstructor
+public class EnrollmentSnapshot {
+
+    private final Long enrollmentId;
+    private final String userId;
+    private final Long courseId;
+    private final Enrollment.Status status;
+
+    public static EnrollmentSnapshot of(Enrollment e) {
+        return new EnrollmentSnapshot(e.getEnrollmentId(), e.getUserId(), e.getCourseId(), e.getStatus());
+    }
+}
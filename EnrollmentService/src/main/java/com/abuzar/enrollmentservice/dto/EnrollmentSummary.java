@@ -0,0 +1,25 @@
+package com.abuzar.enrollmentservice.dto;
+
+import com.abuzar.enrollmentservice.models.Enrollment;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Dashboard read model for an enrollment: the enrollment columns plus the number of
+ * completed lessons, without loading the individual {@code Progress} rows.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentSummary {
+
+    private Long enrollmentId;
+    private String userId;
+    private Long courseId;
+    private LocalDateTime enrolledAt;
+    private Enrollment.Status status;
+    private long completedLessons;
+}
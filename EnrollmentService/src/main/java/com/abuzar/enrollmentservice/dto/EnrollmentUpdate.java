@@ -0,0 +1,25 @@
+package com.abuzar.enrollmentservice.dto;
+
+import com.abuzar.enrollmentservice.models.Enrollment;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One message on an enrollment's event stream: the current state when the stream opens,
+ * then one delta per committed change.
+ */
+@Getter
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EnrollmentUpdate {
+
+    private final Long enrollmentId;
+    private final Enrollment.Status status;
+    private final Integer completedLessons;
+    private final Long lessonId;
+    private final Long certificateId;
+    private final LocalDateTime occurredAt;
+}
@@ -0,0 +1,30 @@
+package com.abuzar.enrollmentservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Version stamp of one enrollment or of all enrollments of a user, read with a single
+ * aggregate query. Enrollments are never deleted and versions only grow, so any change
+ * (new enrollment, completed lesson, issued certificate) changes the count or a sum.
+ */
+@Getter
+@AllArgsConstructor
+public class EnrollmentVersion {
+
+    private final long count;
+    private final long idSum;
+    private final long versionSum;
+    private final LocalDateTime lastModifiedAt;
+
+    /**
+     * Weak, because the stamp says the enrollments are unchanged, not that the bytes are: the
+     * same data goes out as JSON or CBOR, gzipped or not. A strong ETag would also make Tomcat
+     * skip compression for the response.
+     */
+    public String eTag() {
+        return "W/\"" + count + "-" + Long.toHexString(idSum) + "-" + versionSum + "\"";
+    }
+}
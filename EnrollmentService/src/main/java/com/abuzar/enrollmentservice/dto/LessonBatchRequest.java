@@ -0,0 +1,16 @@
+package com.abuzar.enrollmentservice.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class LessonBatchRequest {
+
+    @NotEmpty(message = "At least one lesson ID is required")
+    @Size(max = 1000, message = "At most 1000 lessons can be completed per request")
+    private List<@NotNull(message = "Lesson ID must not be null") Long> lessonIds;
+}
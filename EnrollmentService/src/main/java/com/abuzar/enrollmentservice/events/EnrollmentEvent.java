@@ -0,0 +1,44 @@
+package com.abuzar.enrollmentservice.events;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Enrollment lifecycle event, published inside the transaction that made the change.
+ * Listeners choose their phase: the outbox appends before commit, in-memory consumers after it.
+ */
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EnrollmentEvent {
+
+    public enum Type {
+        ENROLLED, LESSON_COMPLETED, CERTIFICATE_ISSUED
+    }
+
+    private final Type type;
+    private final Long enrollmentId;
+    private final String userId;
+    private final Long courseId;
+    private final Long lessonId;
+    private final Long certificateId;
+    private final LocalDateTime occurredAt;
+
+    public static EnrollmentEvent enrolled(Long enrollmentId, String userId, Long courseId) {
+        return new EnrollmentEvent(Type.ENROLLED, enrollmentId, userId, courseId, null, null, LocalDateTime.now());
+    }
+
+    public static EnrollmentEvent lessonCompleted(Long enrollmentId, String userId, Long courseId, Long lessonId) {
+        return new EnrollmentEvent(Type.LESSON_COMPLETED, enrollmentId, userId, courseId, lessonId, null,
+                LocalDateTime.now());
+    }
+
+    public static EnrollmentEvent certificateIssued(Long enrollmentId, String userId, Long courseId,
+                                                    Long certificateId) {
+        return new EnrollmentEvent(Type.CERTIFICATE_ISSUED, enrollmentId, userId, courseId, null, certificateId,
+                LocalDateTime.now());
+    }
+}
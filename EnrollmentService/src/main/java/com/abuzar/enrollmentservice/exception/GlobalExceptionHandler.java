@@ -46,7 +46,12 @@ public class GlobalExceptionHandler {
     public ResponseEntity<Map<String, Object>> handleResponseStatusException(
             ResponseStatusException ex) {
 
-        log.error("ResponseStatusException: {} - {}", ex.getStatusCode(), ex.getReason());
+        if (ex instanceof RetryLaterException) {
+            // Load shedding (429/503) is expected under pressure; where it is raised, it is already counted or logged
+            log.debug("ResponseStatusException: {} - {}", ex.getStatusCode(), ex.getReason());
+        } else {
+            log.error("ResponseStatusException: {} - {}", ex.getStatusCode(), ex.getReason());
+        }
 
         Map<String, Object> response = new HashMap<>();
         response.put("timestamp", LocalDateTime.now().toString());
@@ -54,7 +59,7 @@ public class GlobalExceptionHandler {
         response.put("error", ex.getStatusCode().toString());
         response.put("message", ex.getReason());
 
-        return ResponseEntity.status(ex.getStatusCode()).body(response);
+        return ResponseEntity.status(ex.getStatusCode()).headers(ex.getHeaders()).body(response);
     }
 
     @ExceptionHandler(Exception.class)
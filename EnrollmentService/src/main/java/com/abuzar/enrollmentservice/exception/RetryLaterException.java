@@ -0,0 +1,32 @@
+package com.abuzar.enrollmentservice.exception;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+
+/**
+ * A {@link ResponseStatusException} for load shedding (429/503) that carries a {@code Retry-After} hint.
+ */
+public class RetryLaterException extends ResponseStatusException {
+
+    private final Duration retryAfter;
+
+    public RetryLaterException(HttpStatusCode status, String reason, Duration retryAfter) {
+        super(status, reason);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        // Retry-After is whole seconds; never advertise 0
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (retryAfter.toMillis() + 999) / 1000)));
+        return headers;
+    }
+}
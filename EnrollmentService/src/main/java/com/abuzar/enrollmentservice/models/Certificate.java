@@ -8,13 +8,17 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "certificates")
+// At most one certificate per enrollment, however many workers or instances try to issue it
+@Table(name = "certificates",
+        uniqueConstraints = @UniqueConstraint(name = "uk_certificates_enrollment",
+                columnNames = "enrollment_id"))
 @Data
 @NoArgsConstructor
 public class Certificate {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "certificates_seq")
+    @SequenceGenerator(name = "certificates_seq", sequenceName = "certificates_seq", allocationSize = 50)
     private Long certificateId;
 
     @ManyToOne(fetch = FetchType.LAZY)
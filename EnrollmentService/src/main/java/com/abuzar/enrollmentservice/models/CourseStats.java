@@ -0,0 +1,43 @@
+package com.abuzar.enrollmentservice.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Running per-course totals, one row per course. Rows are only ever incremented
+ * (see {@code CourseStatsRepository#increment}) or rebuilt from the source tables.
+ */
+@Entity
+@Table(name = "course_stats")
+@Data
+@NoArgsConstructor
+public class CourseStats {
+
+    @Id
+    @Column(name = "course_id")
+    private Long courseId;
+
+    @Column(nullable = false)
+    private long enrollments;
+
+    // Enrollments that reached COMPLETED (certificate issued)
+    @Column(nullable = false)
+    private long completions;
+
+    // Enrollments that were CANCELLED; set by a rebuild, cancellations publish no event
+    @Column(nullable = false)
+    private long cancellations;
+
+    @Column(name = "lessons_completed", nullable = false)
+    private long lessonsCompleted;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Start of the last rebuild; deltas for events before it are already counted
+    @Column(name = "rebuilt_at")
+    private LocalDateTime rebuiltAt;
+}
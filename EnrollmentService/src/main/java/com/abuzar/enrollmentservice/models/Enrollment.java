@@ -9,19 +9,22 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "enrollments")
+@Table(name = "enrollments",
+        uniqueConstraints = @UniqueConstraint(name = "uk_enrollments_user_course",
+                columnNames = {"user_id", "course_id"}))
 @Data
 @NoArgsConstructor
 public class Enrollment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "enrollments_seq")
+    @SequenceGenerator(name = "enrollments_seq", sequenceName = "enrollments_seq", allocationSize = 50)
     private Long enrollmentId;
 
-    @Column(nullable = false)
+    @Column(name = "user_id", nullable = false)
     private String userId;
 
-    @Column(nullable = false)
+    @Column(name = "course_id", nullable = false)
     private Long courseId;
 
     @Column(nullable = false)
@@ -30,6 +33,15 @@ public class Enrollment {
     @Enumerated(EnumType.STRING)
     private Status status = Status.IN_PROGRESS;
 
+    // Bumped with an atomic UPDATE (EnrollmentRepository#bumpVersion) whenever the enrollment or
+    // its progress changes; never written from the entity, so a stale copy cannot roll it back.
+    // Not a JPA @Version: progress writes do not load the enrollment.
+    @Column(nullable = false, updatable = false)
+    private long version;
+
+    @Column(name = "last_modified_at", updatable = false)
+    private LocalDateTime lastModifiedAt = LocalDateTime.now();
+
     public enum Status {
         IN_PROGRESS, COMPLETED, CANCELLED
     }
@@ -0,0 +1,46 @@
+package com.abuzar.enrollmentservice.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outbox row, written in the same transaction as the change it describes and
+ * published later by {@code OutboxRelay}.
+ */
+@Entity
+@Table(name = "outbox_events",
+        indexes = {
+                @Index(name = "idx_outbox_events_published", columnList = "published_at, id"),
+                @Index(name = "idx_outbox_events_enrollment", columnList = "enrollment_id, created_at")
+        })
+@Data
+@NoArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, length = 40)
+    private String eventType;
+
+    @Column(nullable = false)
+    private Long enrollmentId;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    // Instance that wrote the row, so the cluster event feed can skip its own events
+    @Column(length = 36)
+    private String origin;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+}
@@ -7,14 +7,23 @@ import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
+/**
+ * One completed lesson. With {@code enrollment.progress.store=bitmap} there are no per-lesson
+ * rows: entries are built from the enrollment's bitmap, {@code progressId} is {@code null}, and
+ * {@code completedAt} is set only for the enrollment's latest completion.
+ */
 @Entity
-@Table(name = "progress")
+@Table(name = "progress",
+        uniqueConstraints = @UniqueConstraint(name = "uk_progress_enrollment_lesson",
+                columnNames = {"enrollment_id", "lesson_id"}))
 @Data
 @NoArgsConstructor
 public class Progress {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence (table-backed on MySQL) instead of IDENTITY, so Hibernate can batch inserts
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "progress_seq")
+    @SequenceGenerator(name = "progress_seq", sequenceName = "progress_seq", allocationSize = 50)
     private Long progressId;
 
     // Child side → don't serialize back to avoid loop
@@ -23,6 +32,7 @@ public class Progress {
     @JsonBackReference           // ✅ avoids infinite recursion
     private Enrollment enrollment;
 
+    @Column(name = "lesson_id")
     private Long lessonId;
     private boolean completed = false;
     private LocalDateTime completedAt;
@@ -0,0 +1,43 @@
+package com.abuzar.enrollmentservice.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Completed lessons of one enrollment as an encoded {@code LessonBitmap}, used instead of
+ * {@link Progress} rows when {@code enrollment.progress.store=bitmap}. Only the latest
+ * completion keeps its timestamp.
+ */
+@Entity
+@Table(name = "progress_bitmaps")
+@Data
+@NoArgsConstructor
+public class ProgressBitmap {
+
+    @Id
+    @Column(name = "enrollment_id")
+    private Long enrollmentId;
+
+    @Column(name = "course_id", nullable = false)
+    private Long courseId;
+
+    @Column(nullable = false, columnDefinition = "BLOB")
+    private byte[] lessons;
+
+    // Kept next to the bitmap so summaries never decode it
+    @Column(name = "completed_count", nullable = false)
+    private long completedCount;
+
+    @Column(name = "last_lesson_id")
+    private Long lastLessonId;
+
+    @Column(name = "last_completed_at")
+    private LocalDateTime lastCompletedAt;
+
+    // Concurrent completions for the same enrollment retry instead of overwriting each other
+    @Version
+    private Long version;
+}
@@ -0,0 +1,51 @@
+package com.abuzar.enrollmentservice.outbox;
+
+import com.abuzar.enrollmentservice.models.OutboxEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends each event as one JSON line ({@code {"id":..,"type":..,"event":{..}}}) to a local file.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "enrollment.outbox.sink", havingValue = "file")
+public class FileOutboxSink implements OutboxSink {
+
+    private final Path file;
+
+    public FileOutboxSink(@Value("${enrollment.outbox.file.path:./data/outbox/events.ndjson}") String file) {
+        this.file = Paths.get(file).toAbsolutePath().normalize();
+        log.info("Outbox events will be appended to {}", this.file);
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> batch) throws IOException {
+        Files.createDirectories(file.getParent());
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (OutboxEvent event : batch) {
+                out.write(jsonLine(event));
+                out.newLine();
+            }
+        }
+    }
+
+    static String jsonLine(OutboxEvent event) {
+        // The payload is already JSON, so it is embedded as-is
+        return "{\"id\":" + event.getId()
+                + ",\"type\":\"" + event.getEventType()
+                + "\",\"event\":" + event.getPayload() + "}";
+    }
+}
@@ -0,0 +1,45 @@
+package com.abuzar.enrollmentservice.outbox;
+
+import com.abuzar.enrollmentservice.models.OutboxEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Keeps the most recent published events in memory. Meant for local runs and tests: nothing
+ * leaves the process, and the events are gone after a restart.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "enrollment.outbox.sink", havingValue = "memory")
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final int capacity;
+    private final Deque<OutboxEvent> events = new ArrayDeque<>();
+
+    public InMemoryOutboxSink(@Value("${enrollment.outbox.memory.capacity:10000}") int capacity) {
+        this.capacity = capacity;
+        log.warn("Outbox events are kept in memory only (enrollment.outbox.sink=memory); no consumer will see them");
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> batch) {
+        for (OutboxEvent event : batch) {
+            if (events.size() == capacity) {
+                events.removeFirst();
+            }
+            events.addLast(event);
+        }
+        log.debug("Published {} outbox events to memory", batch.size());
+    }
+
+    public synchronized List<OutboxEvent> recent() {
+        return new ArrayList<>(events);
+    }
+}
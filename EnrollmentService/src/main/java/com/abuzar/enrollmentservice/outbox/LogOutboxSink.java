@@ -0,0 +1,35 @@
+package com.abuzar.enrollmentservice.outbox;
+
+import com.abuzar.enrollmentservice.models.OutboxEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Writes each event as one JSON line to the {@code enrollment.outbox.events} logger, so the
+ * platform's log shipping carries them until a broker sink exists. The default sink.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "enrollment.outbox.sink", havingValue = "log")
+public class LogOutboxSink implements OutboxSink {
+
+    private static final Logger EVENTS = LoggerFactory.getLogger("enrollment.outbox.events");
+
+    public LogOutboxSink() {
+        if (!EVENTS.isInfoEnabled()) {
+            log.warn("Outbox sink is 'log' but logger enrollment.outbox.events is below INFO; published events are dropped");
+        }
+    }
+
+    @Override
+    public void publish(List<OutboxEvent> batch) {
+        for (OutboxEvent event : batch) {
+            EVENTS.info(FileOutboxSink.jsonLine(event));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.abuzar.enrollmentservice.outbox;
+
+import com.abuzar.enrollmentservice.models.OutboxEvent;
+import com.abuzar.enrollmentservice.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Drains the outbox in batches: lock up to {@code batch-size} unpublished rows, hand them to
+ * the {@link OutboxSink}, mark them published, all in one transaction. A failed publish rolls
+ * back and the same rows are retried on the next run.
+ *
+ * <p>{@code enrollment.outbox.sink} selects the sink ({@code log} by default). An empty or
+ * unknown value fails startup: without a sink, events would be marked published without going
+ * anywhere.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxRepo;
+    private final OutboxSink sink;
+    private final TransactionTemplate txTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration retention;
+
+    public OutboxRelay(OutboxEventRepository outboxRepo,
+                       ObjectProvider<OutboxSink> sink,
+                       TransactionTemplate txTemplate,
+                       @Value("${enrollment.outbox.batch-size:200}") int batchSize,
+                       @Value("${enrollment.outbox.max-batches-per-run:50}") int maxBatchesPerRun,
+                       @Value("${enrollment.outbox.retention:7d}") Duration retention) {
+        this.outboxRepo = outboxRepo;
+        this.sink = sink.getIfAvailable(() -> {
+            throw new IllegalStateException("No outbox sink configured: set enrollment.outbox.sink to log, file or memory");
+        });
+        this.txTemplate = txTemplate;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${enrollment.outbox.poll-interval-ms:1000}")
+    public void drain() {
+        int published = 0;
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            Integer count;
+            try {
+                count = txTemplate.execute(status -> publishBatch());
+            } catch (RuntimeException ex) {
+                log.error("Outbox publish failed, will retry", ex);
+                return;
+            }
+            published += count;
+            if (count < batchSize) {
+                break;
+            }
+        }
+        if (published > 0) {
+            log.info("Published {} outbox events", published);
+        }
+    }
+
+    private int publishBatch() {
+        List<OutboxEvent> batch = outboxRepo.lockUnpublished(PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        try {
+            sink.publish(batch);
+        } catch (Exception ex) {
+            throw new IllegalStateException("Outbox sink rejected a batch of " + batch.size(), ex);
+        }
+        outboxRepo.markPublished(batch.stream().map(OutboxEvent::getId).toList(), LocalDateTime.now());
+        return batch.size();
+    }
+
+    @Scheduled(fixedDelayString = "${enrollment.outbox.purge-interval-ms:3600000}")
+    public void purgePublished() {
+        Integer deleted = txTemplate.execute(status ->
+                outboxRepo.deletePublishedBefore(LocalDateTime.now().minus(retention)));
+        if (deleted != null && deleted > 0) {
+            log.info("Purged {} published outbox events older than {}", deleted, retention);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.abuzar.enrollmentservice.outbox;
+
+import com.abuzar.enrollmentservice.models.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Destination for outbox events. Delivery is at-least-once: a batch whose publish throws is
+ * retried on the next relay run, so consumers should de-duplicate on {@link OutboxEvent#getId()}.
+ */
+public interface OutboxSink {
+
+    void publish(List<OutboxEvent> batch) throws Exception;
+}
@@ -0,0 +1,43 @@
+package com.abuzar.enrollmentservice.outbox;
+
+import com.abuzar.enrollmentservice.events.EnrollmentEvent;
+import com.abuzar.enrollmentservice.models.OutboxEvent;
+import com.abuzar.enrollmentservice.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Appends every {@link EnrollmentEvent} to the outbox table just before the publishing
+ * transaction commits, so the event row commits or rolls back together with the change.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+
+    private final OutboxEventRepository outboxRepo;
+    private final ObjectMapper objectMapper;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void append(EnrollmentEvent event) throws JsonProcessingException {
+        OutboxEvent row = new OutboxEvent();
+        row.setEventType(event.getType().name());
+        row.setEnrollmentId(event.getEnrollmentId());
+        row.setPayload(objectMapper.writeValueAsString(event));
+        row.setCreatedAt(LocalDateTime.now());
+        row.setOrigin(instanceId);
+        outboxRepo.save(row);
+    }
+
+    /** Marks the outbox rows written by this process. */
+    public String instanceId() {
+        return instanceId;
+    }
+}
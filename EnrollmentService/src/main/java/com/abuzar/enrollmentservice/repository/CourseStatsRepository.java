@@ -0,0 +1,53 @@
+package com.abuzar.enrollmentservice.repository;
+
+import com.abuzar.enrollmentservice.models.CourseStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface CourseStatsRepository extends JpaRepository<CourseStats, Long> {
+
+    String NOT_REBUILT_SINCE = "(rebuilt_at is null or rebuilt_at < :lastEventAt)";
+
+    // Additive upsert, so several instances can flush their deltas for the same course. Deltas whose
+    // last event predates the row's rebuild are already in the recount and are skipped.
+    @Modifying
+    @Query(value = "insert into course_stats (course_id, enrollments, completions, cancellations, lessons_completed, updated_at) "
+            + "values (:courseId, :enrollments, :completions, 0, :lessons, :now) "
+            + "on duplicate key update "
+            + "enrollments = enrollments + case when " + NOT_REBUILT_SINCE + " then :enrollments else 0 end, "
+            + "completions = completions + case when " + NOT_REBUILT_SINCE + " then :completions else 0 end, "
+            + "lessons_completed = lessons_completed + case when " + NOT_REBUILT_SINCE + " then :lessons else 0 end, "
+            + "updated_at = :now",
+            nativeQuery = true)
+    int increment(@Param("courseId") Long courseId,
+                  @Param("enrollments") long enrollments,
+                  @Param("completions") long completions,
+                  @Param("lessons") long lessonsCompleted,
+                  @Param("lastEventAt") LocalDateTime lastEventAt,
+                  @Param("now") LocalDateTime now);
+
+    // Gives a course that was never flushed a row for recount() to update
+    @Modifying
+    @Query(value = "insert into course_stats (course_id, enrollments, completions, cancellations, lessons_completed) "
+            + "values (:courseId, 0, 0, 0, 0) on duplicate key update course_id = course_id",
+            nativeQuery = true)
+    int ensureRow(@Param("courseId") Long courseId);
+
+    // One statement, so the row lock orders it against concurrent increments and none is lost
+    @Modifying
+    @Query(value = "update course_stats set "
+            + "enrollments = (select count(*) from enrollments e where e.course_id = :courseId), "
+            + "completions = (select count(*) from enrollments e where e.course_id = :courseId and e.status = 'COMPLETED'), "
+            + "cancellations = (select count(*) from enrollments e where e.course_id = :courseId and e.status = 'CANCELLED'), "
+            + "lessons_completed = (select count(*) from progress p join enrollments e on e.enrollment_id = p.enrollment_id "
+            + "where e.course_id = :courseId and p.completed = true) "
+            + "+ (select coalesce(sum(b.completed_count), 0) from progress_bitmaps b where b.course_id = :courseId), "
+            + "updated_at = :rebuiltAt, rebuilt_at = :rebuiltAt "
+            + "where course_id = :courseId",
+            nativeQuery = true)
+    int recount(@Param("courseId") Long courseId, @Param("rebuiltAt") LocalDateTime rebuiltAt);
+}
@@ -1,11 +1,88 @@
 package com.abuzar.enrollmentservice.repository;
 
+import com.abuzar.enrollmentservice.dto.EnrollmentSummary;
+import com.abuzar.enrollmentservice.dto.EnrollmentVersion;
 import com.abuzar.enrollmentservice.models.Enrollment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
     List<Enrollment> findByUserId(String userId);
     List<Enrollment> findByUserIdAndCourseId(String userId, Long courseId);
-}
\ No newline at end of file
+
+    // Loads the enrollments together with their progress rows in a single query
+    @EntityGraph(attributePaths = "progressList")
+    List<Enrollment> findWithProgressByUserIdOrderByEnrollmentId(String userId);
+
+    // Completed lessons are counted from progress rows plus the bitmap store, whichever is in use
+    @Query("select new com.abuzar.enrollmentservice.dto.EnrollmentSummary(" +
+            "e.enrollmentId, e.userId, e.courseId, e.enrolledAt, e.status, count(p) + coalesce(b.completedCount, 0L)) " +
+            "from Enrollment e left join e.progressList p on p.completed = true " +
+            "left join ProgressBitmap b on b.enrollmentId = e.enrollmentId " +
+            "where e.userId = :userId " +
+            "group by e.enrollmentId, e.userId, e.courseId, e.enrolledAt, e.status, b.completedCount " +
+            "order by e.enrollmentId")
+    List<EnrollmentSummary> findSummariesByUserId(@Param("userId") String userId);
+
+    // Keyset pagination: ids are selected first so the progress fetch below is never paged in memory
+    @Query("select e.enrollmentId from Enrollment e " +
+            "where e.userId = :userId and e.enrollmentId > :after " +
+            "order by e.enrollmentId")
+    List<Long> findIdPageByUserId(@Param("userId") String userId,
+                                  @Param("after") long after,
+                                  Pageable pageable);
+
+    @EntityGraph(attributePaths = "progressList")
+    Optional<Enrollment> findWithProgressByEnrollmentId(Long enrollmentId);
+
+    @EntityGraph(attributePaths = "progressList")
+    List<Enrollment> findWithProgressByEnrollmentIdInOrderByEnrollmentId(Collection<Long> enrollmentIds);
+
+    @Query("select new com.abuzar.enrollmentservice.dto.EnrollmentSummary(" +
+            "e.enrollmentId, e.userId, e.courseId, e.enrolledAt, e.status, count(p) + coalesce(b.completedCount, 0L)) " +
+            "from Enrollment e left join e.progressList p on p.completed = true " +
+            "left join ProgressBitmap b on b.enrollmentId = e.enrollmentId " +
+            "where e.userId = :userId and e.enrollmentId > :after " +
+            "group by e.enrollmentId, e.userId, e.courseId, e.enrolledAt, e.status, b.completedCount " +
+            "order by e.enrollmentId")
+    List<EnrollmentSummary> findSummaryPageByUserId(@Param("userId") String userId,
+                                                    @Param("after") long after,
+                                                    Pageable pageable);
+
+    // Conditional GETs: version stamps without loading the entities or their progress
+    @Query("select new com.abuzar.enrollmentservice.dto.EnrollmentVersion(" +
+            "count(e), coalesce(sum(e.enrollmentId), 0L), coalesce(sum(e.version), 0L), max(e.lastModifiedAt)) " +
+            "from Enrollment e where e.enrollmentId = :enrollmentId")
+    EnrollmentVersion findVersionById(@Param("enrollmentId") Long enrollmentId);
+
+    @Query("select new com.abuzar.enrollmentservice.dto.EnrollmentVersion(" +
+            "count(e), coalesce(sum(e.enrollmentId), 0L), coalesce(sum(e.version), 0L), max(e.lastModifiedAt)) " +
+            "from Enrollment e where e.userId = :userId")
+    EnrollmentVersion findVersionByUserId(@Param("userId") String userId);
+
+    @Modifying
+    @Query("update Enrollment e set e.version = e.version + 1, e.lastModifiedAt = :now " +
+            "where e.enrollmentId in :enrollmentIds")
+    int bumpVersion(@Param("enrollmentIds") Collection<Long> enrollmentIds, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update Enrollment e set e.status = :status, e.version = e.version + 1, e.lastModifiedAt = :now " +
+            "where e.enrollmentId = :enrollmentId")
+    int updateStatus(@Param("enrollmentId") Long enrollmentId,
+                     @Param("status") Enrollment.Status status,
+                     @Param("now") LocalDateTime now);
+
+    // Cohort import: which of these users are already enrolled in the course
+    @Query("select e.userId from Enrollment e where e.courseId = :courseId and e.userId in :userIds")
+    List<String> findEnrolledUserIds(@Param("courseId") Long courseId,
+                                     @Param("userIds") Collection<String> userIds);
+}
@@ -0,0 +1,40 @@
+package com.abuzar.enrollmentservice.repository;
+
+import com.abuzar.enrollmentservice.models.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // FOR UPDATE SKIP LOCKED: several instances can drain concurrently without publishing a row twice
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select o from OutboxEvent o where o.publishedAt is null order by o.id")
+    List<OutboxEvent> lockUnpublished(Pageable pageable);
+
+    // Published or not: the relay and the cluster event feed read the same rows independently
+    @Query("select o from OutboxEvent o where o.enrollmentId in :enrollmentIds and o.createdAt > :since"
+            + " and o.origin <> :origin order by o.id")
+    List<OutboxEvent> findRecentFromOthers(@Param("enrollmentIds") Collection<Long> enrollmentIds,
+                                           @Param("since") LocalDateTime since,
+                                           @Param("origin") String origin);
+
+    @Modifying
+    @Query("update OutboxEvent o set o.publishedAt = :publishedAt where o.id in :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") LocalDateTime publishedAt);
+
+    @Modifying
+    @Query("delete from OutboxEvent o where o.publishedAt < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,7 @@
+package com.abuzar.enrollmentservice.repository;
+
+import com.abuzar.enrollmentservice.models.ProgressBitmap;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ProgressBitmapRepository extends JpaRepository<ProgressBitmap, Long> {
+}
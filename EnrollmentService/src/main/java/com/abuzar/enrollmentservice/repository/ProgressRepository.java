@@ -1,8 +1,13 @@
 package com.abuzar.enrollmentservice.repository;
 
+import com.abuzar.enrollmentservice.dto.EnrollmentSnapshot;
 import com.abuzar.enrollmentservice.models.Progress;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,4 +16,21 @@ public interface ProgressRepository extends JpaRepository<Progress, Long> {
 
     // Method to find progress by enrollment ID and lesson ID
     Optional<Progress> findByEnrollment_EnrollmentIdAndLessonId(Long enrollmentId, Long lessonId);
-}
\ No newline at end of file
+
+    List<Progress> findByEnrollment_EnrollmentIdAndLessonIdIn(Long enrollmentId, Collection<Long> lessonIds);
+
+    // A superset for a group commit: every listed lesson of every listed enrollment
+    List<Progress> findByEnrollment_EnrollmentIdInAndLessonIdIn(Collection<Long> enrollmentIds,
+                                                                 Collection<Long> lessonIds);
+
+    @Query("select p.lessonId from Progress p " +
+            "where p.enrollment.enrollmentId = :enrollmentId and p.completed = true order by p.lessonId")
+    List<Long> findCompletedLessonIds(@Param("enrollmentId") Long enrollmentId);
+
+    // Enrollments that still have rows, for the bitmap migration
+    @Query("select distinct new com.abuzar.enrollmentservice.dto.EnrollmentSnapshot(" +
+            "e.enrollmentId, e.userId, e.courseId, e.status) " +
+            "from Progress p join p.enrollment e " +
+            "where e.enrollmentId > :after order by e.enrollmentId")
+    List<EnrollmentSnapshot> findEnrollmentsWithRows(@Param("after") long after, Pageable pageable);
+}
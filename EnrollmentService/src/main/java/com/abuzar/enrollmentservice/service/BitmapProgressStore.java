@@ -0,0 +1,209 @@
+package com.abuzar.enrollmentservice.service;
+
+import com.abuzar.enrollmentservice.dto.EnrollmentSnapshot;
+import com.abuzar.enrollmentservice.events.EnrollmentEvent;
+import com.abuzar.enrollmentservice.models.Enrollment;
+import com.abuzar.enrollmentservice.models.Progress;
+import com.abuzar.enrollmentservice.models.ProgressBitmap;
+import com.abuzar.enrollmentservice.repository.EnrollmentRepository;
+import com.abuzar.enrollmentservice.repository.ProgressBitmapRepository;
+import com.abuzar.enrollmentservice.repository.ProgressRepository;
+import com.abuzar.enrollmentservice.util.LessonBitmap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * {@link ProgressStore} keeping one {@link ProgressBitmap} row per enrollment.
+ *
+ * <p>Each write is a read-modify-write of that row guarded by its version; a concurrent
+ * completion for the same enrollment makes the loser retry on the fresh bitmap. The first
+ * write for an enrollment folds any existing {@link Progress} rows into the bitmap and deletes
+ * them, so switching stores needs no downtime ({@link ProgressBitmapMigration} does the rest
+ * in the background).
+ *
+ * <p>Returned and listed {@link Progress} entries are not rows: {@code progressId} is
+ * {@code null}, and only the latest completion keeps its timestamp, so for older lessons
+ * {@code completedAt} is {@code null} too.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "enrollment.progress.store", havingValue = "bitmap")
+@RequiredArgsConstructor
+public class BitmapProgressStore implements ProgressStore {
+
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final ProgressBitmapRepository bitmapRepo;
+    private final ProgressRepository progressRepo;
+    private final EnrollmentRepository enrollmentRepo;
+    private final TransactionTemplate txTemplate;
+    private final ApplicationEventPublisher events;
+
+    @Override
+    public Progress complete(EnrollmentSnapshot enrollment, Long lessonId) {
+        return completeAll(enrollment, List.of(lessonId)).get(0);
+    }
+
+    @Override
+    public List<Progress> completeAll(EnrollmentSnapshot enrollment, Collection<Long> lessonIds) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return txTemplate.execute(status -> apply(enrollment, lessonIds));
+            } catch (OptimisticLockingFailureException | DataIntegrityViolationException ex) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    log.warn("Gave up updating lesson bitmap of enrollment {} after {} attempts",
+                            enrollment.getEnrollmentId(), attempt);
+                    throw new ResponseStatusException(HttpStatus.CONFLICT,
+                            "Lessons were completed concurrently, please retry");
+                }
+                log.debug("Lesson bitmap of enrollment {} changed concurrently, retrying", enrollment.getEnrollmentId());
+            }
+        }
+    }
+
+    @Override
+    public List<Long> completedLessonIds(Long enrollmentId) {
+        return bitmapRepo.findById(enrollmentId)
+                .map(row -> LessonBitmap.decode(row.getLessons()).lessonIds().boxed().toList())
+                // Not migrated yet
+                .orElseGet(() -> progressRepo.findCompletedLessonIds(enrollmentId));
+    }
+
+    /**
+     * Enrollments that have a bitmap get one entry per completed lesson, in lesson id order;
+     * the others (not migrated yet) keep their rows.
+     */
+    @Override
+    public void fillProgress(List<Enrollment> enrollments) {
+        if (enrollments.isEmpty()) {
+            return;
+        }
+        Map<Long, ProgressBitmap> bitmaps = bitmapRepo.findAllById(
+                        enrollments.stream().map(Enrollment::getEnrollmentId).toList())
+                .stream()
+                .collect(Collectors.toMap(ProgressBitmap::getEnrollmentId, Function.identity()));
+        for (Enrollment enrollment : enrollments) {
+            ProgressBitmap row = bitmaps.get(enrollment.getEnrollmentId());
+            if (row != null) {
+                enrollment.setProgressList(LessonBitmap.decode(row.getLessons()).lessonIds()
+                        .mapToObj(lessonId -> progress(lessonId,
+                                Long.valueOf(lessonId).equals(row.getLastLessonId()) ? row.getLastCompletedAt() : null))
+                        .collect(Collectors.toCollection(ArrayList::new)));
+            }
+        }
+    }
+
+    /**
+     * Moves the enrollment's progress rows into its bitmap. Returns the number of rows moved,
+     * 0 if the enrollment already has a bitmap.
+     */
+    public int migrate(EnrollmentSnapshot enrollment) {
+        Long enrollmentId = enrollment.getEnrollmentId();
+        Integer moved = txTemplate.execute(status -> {
+            if (bitmapRepo.existsById(enrollmentId)) {
+                return 0;
+            }
+            List<Progress> rows = progressRepo.findByEnrollmentEnrollmentId(enrollmentId);
+            bitmapRepo.saveAndFlush(fold(enrollmentId, enrollment.getCourseId(), rows));
+            return rows.size();
+        });
+        return moved != null ? moved : 0;
+    }
+
+    private List<Progress> apply(EnrollmentSnapshot enrollment, Collection<Long> lessonIds) {
+        Long enrollmentId = enrollment.getEnrollmentId();
+        ProgressBitmap row = bitmapRepo.findById(enrollmentId)
+                .orElseGet(() -> fold(enrollmentId, enrollment.getCourseId(),
+                        progressRepo.findByEnrollmentEnrollmentId(enrollmentId)));
+        LessonBitmap bitmap = LessonBitmap.decode(row.getLessons());
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Progress> result = new ArrayList<>(lessonIds.size());
+        List<Long> added = new ArrayList<>();
+        for (Long lessonId : new LinkedHashSet<>(lessonIds)) {
+            boolean isNew;
+            try {
+                isNew = bitmap.add(lessonId);
+            } catch (IllegalArgumentException ex) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
+            }
+            LocalDateTime completedAt = isNew ? now
+                    : lessonId.equals(row.getLastLessonId()) ? row.getLastCompletedAt() : null;
+            result.add(progress(lessonId, completedAt));
+            if (isNew) {
+                added.add(lessonId);
+            }
+        }
+        if (added.isEmpty() && row.getVersion() != null) {
+            return result;
+        }
+
+        row.setLessons(bitmap.encode());
+        row.setCompletedCount(bitmap.cardinality());
+        if (!added.isEmpty()) {
+            row.setLastLessonId(added.get(added.size() - 1));
+            row.setLastCompletedAt(now);
+        }
+        bitmapRepo.saveAndFlush(row);
+        if (!added.isEmpty()) {
+            enrollmentRepo.bumpVersion(List.of(enrollmentId), now);
+        }
+        added.forEach(lessonId -> events.publishEvent(EnrollmentEvent.lessonCompleted(
+                enrollmentId, enrollment.getUserId(), enrollment.getCourseId(), lessonId)));
+        log.info("Lesson bitmap saved - enrollmentId: {}, added: {}, total: {}",
+                enrollmentId, added.size(), bitmap.cardinality());
+        return result;
+    }
+
+    /** New, unsaved bitmap row holding the given progress rows, which are deleted. */
+    private ProgressBitmap fold(Long enrollmentId, Long courseId, List<Progress> rows) {
+        LessonBitmap bitmap = LessonBitmap.empty();
+        rows.stream().filter(Progress::isCompleted).forEach(p -> bitmap.add(p.getLessonId()));
+
+        ProgressBitmap row = new ProgressBitmap();
+        row.setEnrollmentId(enrollmentId);
+        row.setCourseId(courseId);
+        row.setLessons(bitmap.encode());
+        row.setCompletedCount(bitmap.cardinality());
+        rows.stream()
+                .filter(p -> p.isCompleted() && p.getCompletedAt() != null)
+                .max(Comparator.comparing(Progress::getCompletedAt))
+                .ifPresent(latest -> {
+                    row.setLastLessonId(latest.getLessonId());
+                    row.setLastCompletedAt(latest.getCompletedAt());
+                });
+
+        if (!rows.isEmpty()) {
+            progressRepo.deleteAllInBatch(rows);
+            log.info("Folded {} progress rows into the lesson bitmap of enrollment {}", rows.size(), enrollmentId);
+        }
+        return row;
+    }
+
+    private static Progress progress(Long lessonId, LocalDateTime completedAt) {
+        // Not an entity row: the bitmap store has no per-lesson ids
+        Progress p = new Progress();
+        p.setLessonId(lessonId);
+        p.setCompleted(true);
+        p.setCompletedAt(completedAt);
+        return p;
+    }
+}
@@ -0,0 +1,218 @@
+package com.abuzar.enrollmentservice.service;
+
+import com.abuzar.enrollmentservice.dto.CertificateJob;
+import com.abuzar.enrollmentservice.dto.EnrollmentSnapshot;
+import com.abuzar.enrollmentservice.exception.RetryLaterException;
+import com.abuzar.enrollmentservice.models.Certificate;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs certificate generation off the request thread. Rendering happens on a fixed pool of
+ * {@code workers} threads behind a queue of {@code queue-capacity}; when the queue is full new
+ * submissions are rejected with 503 and a {@code Retry-After} hint instead of piling up.
+ * At most one job per enrollment is in flight.
+ */
+@Slf4j
+@Service
+public class CertificateJobService {
+
+    private final EnrollmentService enrollmentService;
+    private final CertificateRenderer renderer;
+    private final ThreadPoolExecutor executor;
+    private final Duration retryAfter;
+
+    // Recent jobs for the status endpoint; finished jobs age out
+    private final Cache<String, CertificateJob> jobs;
+    private final Map<Long, String> inFlightByEnrollment = new ConcurrentHashMap<>();
+
+    public CertificateJobService(EnrollmentService enrollmentService,
+                                 CertificateRenderer renderer,
+                                 @Value("${enrollment.certificates.workers:2}") int workers,
+                                 @Value("${enrollment.certificates.queue-capacity:100}") int queueCapacity,
+                                 @Value("${enrollment.certificates.retry-after:10s}") Duration retryAfter,
+                                 @Value("${enrollment.certificates.job-retention:1h}") Duration jobRetention) {
+        this.enrollmentService = enrollmentService;
+        this.renderer = renderer;
+        this.retryAfter = retryAfter;
+        this.executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("certificate-render-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.jobs = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(jobRetention)
+                .build();
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Certificate workers did not finish in time, {} jobs dropped", executor.getQueue().size());
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns a COMPLETED job if the certificate already exists, the in-flight job if one is
+     * running for this enrollment, or a newly QUEUED job.
+     */
+    public CertificateJob submit(Long enrollmentId, String currentUserId, String currentUserRole) {
+        EnrollmentSnapshot enrollment = enrollmentService.getOwnedEnrollment(
+                enrollmentId, currentUserId, currentUserRole, "generate a certificate");
+
+        Certificate existing = enrollmentService.findCertificate(enrollmentId);
+        if (existing != null) {
+            log.info("Certificate already exists for enrollment {}: certificateId={}",
+                    enrollmentId, existing.getCertificateId());
+            return publish(completed(newJob(enrollmentId), existing));
+        }
+
+        CertificateJob job = newJob(enrollmentId);
+        String running = inFlightByEnrollment.putIfAbsent(enrollmentId, job.getJobId());
+        if (running != null) {
+            CertificateJob current = jobs.getIfPresent(running);
+            if (current != null) {
+                log.info("Certificate job {} already in flight for enrollment {}", running, enrollmentId);
+                return current;
+            }
+            inFlightByEnrollment.put(enrollmentId, job.getJobId());
+        }
+
+        publish(job);
+        try {
+            executor.execute(() -> run(job, enrollment.getUserId(), enrollment.getCourseId()));
+        } catch (RejectedExecutionException ex) {
+            inFlightByEnrollment.remove(enrollmentId, job.getJobId());
+            jobs.invalidate(job.getJobId());
+            log.warn("Certificate queue full ({} pending), rejecting enrollment {}",
+                    executor.getQueue().size(), enrollmentId);
+            throw new RetryLaterException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Certificate generation is busy, please retry later", retryAfter);
+        }
+        log.info("Certificate job {} queued for enrollment {}", job.getJobId(), enrollmentId);
+        return job;
+    }
+
+    /**
+     * Jobs are only known to the instance that ran them, so a job id this instance has not seen
+     * (submitted elsewhere, or aged out) is answered from the certificate row: COMPLETED once it
+     * is issued, 404 until then.
+     */
+    public CertificateJob getJob(Long enrollmentId, String jobId, String currentUserId, String currentUserRole) {
+        enrollmentService.getOwnedEnrollment(enrollmentId, currentUserId, currentUserRole, "view certificates");
+        CertificateJob job = jobs.getIfPresent(jobId);
+        if (job != null && job.getEnrollmentId().equals(enrollmentId)) {
+            return job;
+        }
+        Certificate issued = job == null ? enrollmentService.findCertificate(enrollmentId) : null;
+        if (issued == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Certificate job not found");
+        }
+        return completed(CertificateJob.builder()
+                .jobId(jobId)
+                .enrollmentId(enrollmentId)
+                .statusUrl("/api/enrollments/" + enrollmentId + "/certificate/jobs/" + jobId)
+                .build(), issued);
+    }
+
+    private void run(CertificateJob job, String userId, Long courseId) {
+        Long enrollmentId = job.getEnrollmentId();
+        try {
+            // Issued meanwhile by another instance: no need to render at all
+            Certificate existing = enrollmentService.findCertificate(enrollmentId);
+            if (existing != null) {
+                publish(completed(job, existing));
+                log.info("Certificate job {} found certificate {} already issued",
+                        job.getJobId(), existing.getCertificateId());
+                return;
+            }
+
+            update(job, CertificateJob.Status.RENDERING, null);
+            Path draft = renderer.render(enrollmentId, userId, courseId, LocalDateTime.now());
+
+            update(job, CertificateJob.Status.STORING, null);
+            Certificate cert;
+            try {
+                // The draft replaces the stored PDF only if this job inserts the certificate row
+                cert = enrollmentService.issueCertificate(enrollmentId,
+                        "/api/enrollments/" + enrollmentId + "/certificate/file",
+                        () -> store(enrollmentId, draft));
+            } finally {
+                renderer.discard(draft);
+            }
+
+            publish(completed(job, cert));
+            log.info("Certificate job {} completed: certificateId={}", job.getJobId(), cert.getCertificateId());
+        } catch (Exception ex) {
+            log.error("Certificate job {} failed for enrollment {}", job.getJobId(), enrollmentId, ex);
+            update(job, CertificateJob.Status.FAILED, "Certificate generation failed, please retry");
+        } finally {
+            inFlightByEnrollment.remove(enrollmentId, job.getJobId());
+        }
+    }
+
+    private void store(Long enrollmentId, Path draft) {
+        try {
+            renderer.store(enrollmentId, draft);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static CertificateJob completed(CertificateJob job, Certificate cert) {
+        return job.toBuilder()
+                .status(CertificateJob.Status.COMPLETED)
+                .certificateId(cert.getCertificateId())
+                .certificateUrl(cert.getUrl())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private CertificateJob newJob(Long enrollmentId) {
+        String jobId = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        return CertificateJob.builder()
+                .jobId(jobId)
+                .enrollmentId(enrollmentId)
+                .status(CertificateJob.Status.QUEUED)
+                .statusUrl("/api/enrollments/" + enrollmentId + "/certificate/jobs/" + jobId)
+                .submittedAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
+    private void update(CertificateJob job, CertificateJob.Status status, String message) {
+        publish(job.toBuilder()
+                .status(status)
+                .message(message)
+                .updatedAt(LocalDateTime.now())
+                .build());
+    }
+
+    private CertificateJob publish(CertificateJob job) {
+        jobs.put(job.getJobId(), job);
+        return job;
+    }
+}
@@ -0,0 +1,126 @@
+package com.abuzar.enrollmentservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Renders a single-page certificate PDF and stores it under {@code enrollment.certificates.storage-dir}.
+ * The PDF is written directly (Helvetica text on an A4 landscape page), so no PDF library is needed.
+ */
+@Slf4j
+@Component
+public class CertificateRenderer {
+
+    private static final DateTimeFormatter ISSUED_FORMAT = DateTimeFormatter.ofPattern("MMMM d, yyyy");
+
+    private final Path storageDir;
+
+    public CertificateRenderer(@Value("${enrollment.certificates.storage-dir:./data/certificates}") String storageDir) {
+        this.storageDir = Paths.get(storageDir).toAbsolutePath().normalize();
+    }
+
+    public Path pathFor(Long enrollmentId) {
+        return storageDir.resolve(enrollmentId + ".pdf");
+    }
+
+    /**
+     * Renders the PDF to a temp file next to the stored certificates. Nothing is visible to
+     * downloads until the draft is {@link #store stored}; a draft that is not wanted is
+     * {@link #discard discarded}.
+     */
+    public Path render(Long enrollmentId, String userId, Long courseId, LocalDateTime issuedAt) throws IOException {
+        byte[] pdf = pdf(List.of(
+                "Certificate of Completion",
+                "This certifies that user " + userId,
+                "has successfully completed course #" + courseId,
+                "Enrollment #" + enrollmentId + " - issued " + ISSUED_FORMAT.format(issuedAt)));
+
+        Files.createDirectories(storageDir);
+        Path draft = Files.createTempFile(storageDir, enrollmentId + "-", ".pdf.tmp");
+        Files.write(draft, pdf);
+        return draft;
+    }
+
+    /** Moves a rendered draft into place; the atomic move means a download never sees a half-written PDF. */
+    public Path store(Long enrollmentId, Path draft) throws IOException {
+        Path target = pathFor(enrollmentId);
+        Files.move(draft, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("Certificate PDF written: {} ({} bytes)", target, Files.size(target));
+        return target;
+    }
+
+    public void discard(Path draft) {
+        try {
+            Files.deleteIfExists(draft);
+        } catch (IOException ex) {
+            log.warn("Could not delete certificate draft {}", draft, ex);
+        }
+    }
+
+    private static byte[] pdf(List<String> lines) {
+        StringBuilder content = new StringBuilder("BT\n");
+        int y = 420;
+        for (int i = 0; i < lines.size(); i++) {
+            int size = i == 0 ? 32 : 18;
+            content.append("/F1 ").append(size).append(" Tf 1 0 0 1 80 ").append(y).append(" Tm (")
+                    .append(escape(lines.get(i))).append(") Tj\n");
+            y -= i == 0 ? 70 : 36;
+        }
+        content.append("ET");
+
+        List<String> objects = new ArrayList<>();
+        objects.add("<< /Type /Catalog /Pages 2 0 R >>");
+        objects.add("<< /Type /Pages /Kids [3 0 R] /Count 1 >>");
+        objects.add("<< /Type /Page /Parent 2 0 R /MediaBox [0 0 842 595] /Contents 4 0 R "
+                + "/Resources << /Font << /F1 5 0 R >> >> >>");
+        objects.add("<< /Length " + content.length() + " >>\nstream\n" + content + "\nendstream");
+        objects.add("<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica >>");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        write(out, "%PDF-1.4\n");
+        List<Integer> offsets = new ArrayList<>();
+        for (int i = 0; i < objects.size(); i++) {
+            offsets.add(out.size());
+            write(out, (i + 1) + " 0 obj\n" + objects.get(i) + "\nendobj\n");
+        }
+        int xref = out.size();
+        StringBuilder trailer = new StringBuilder("xref\n0 " + (objects.size() + 1) + "\n0000000000 65535 f \n");
+        offsets.forEach(offset -> trailer.append(String.format("%010d 00000 n \n", offset)));
+        trailer.append("trailer\n<< /Size ").append(objects.size() + 1).append(" /Root 1 0 R >>\n")
+                .append("startxref\n").append(xref).append("\n%%EOF\n");
+        write(out, trailer.toString());
+        return out.toByteArray();
+    }
+
+    private static String escape(String text) {
+        // PDF literal strings: escape delimiters and drop anything outside printable ASCII
+        StringBuilder sb = new StringBuilder(text.length());
+        for (char c : text.toCharArray()) {
+            if (c == '(' || c == ')' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c >= 32 && c < 127) {
+                sb.append(c);
+            } else {
+                sb.append('?');
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void write(ByteArrayOutputStream out, String s) {
+        out.writeBytes(s.getBytes(StandardCharsets.US_ASCII));
+    }
+}
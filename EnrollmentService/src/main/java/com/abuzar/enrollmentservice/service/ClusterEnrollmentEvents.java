@@ -0,0 +1,112 @@
+package com.abuzar.enrollmentservice.service;
+
+import com.abuzar.enrollmentservice.events.EnrollmentEvent;
+import com.abuzar.enrollmentservice.models.OutboxEvent;
+import com.abuzar.enrollmentservice.outbox.OutboxWriter;
+import com.abuzar.enrollmentservice.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Feeds {@link EnrollmentUpdateStream} with changes committed on other instances. Events of
+ * this instance are pushed right after commit; everything else is read back from the outbox
+ * table, which every instance writes in the committing transaction.
+ *
+ * <p>Each poll reads the rows of the last {@code lookback} for the enrollments streamed here,
+ * skipping this instance's own rows and rows already pushed. The window has to cover commit
+ * delay, replica lag and clock skew between instances; an event older than that when it
+ * becomes visible is not pushed, and the client catches up from the snapshot when it
+ * reconnects. Nothing is queried while no stream is open.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "enrollment.events.cluster.enabled", havingValue = "true", matchIfMissing = true)
+public class ClusterEnrollmentEvents {
+
+    // Keeps each IN list well below database limits
+    private static final int ENROLLMENTS_PER_QUERY = 500;
+
+    private final EnrollmentUpdateStream stream;
+    private final OutboxEventRepository outboxRepo;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTx;
+    private final String instanceId;
+    private final Duration lookback;
+
+    // Outbox ids pushed within the window, with their creation time for pruning; guarded by poll()
+    private final Map<Long, LocalDateTime> pushed = new HashMap<>();
+
+    public ClusterEnrollmentEvents(EnrollmentUpdateStream stream,
+                                   OutboxEventRepository outboxRepo,
+                                   OutboxWriter outboxWriter,
+                                   ObjectMapper objectMapper,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${enrollment.events.cluster.lookback:10s}") Duration lookback) {
+        this.stream = stream;
+        this.outboxRepo = outboxRepo;
+        this.objectMapper = objectMapper;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.instanceId = outboxWriter.instanceId();
+        this.lookback = lookback;
+    }
+
+    @Scheduled(fixedDelayString = "${enrollment.events.cluster.poll-interval-ms:1000}")
+    public synchronized void poll() {
+        Set<Long> streamed = stream.streamedEnrollmentIds();
+        if (streamed.isEmpty()) {
+            pushed.clear();
+            return;
+        }
+        LocalDateTime since = LocalDateTime.now().minus(lookback);
+        pushed.values().removeIf(createdAt -> !createdAt.isAfter(since));
+
+        List<Long> ids = new ArrayList<>(streamed);
+        for (int from = 0; from < ids.size(); from += ENROLLMENTS_PER_QUERY) {
+            List<Long> chunk = ids.subList(from, Math.min(from + ENROLLMENTS_PER_QUERY, ids.size()));
+            List<OutboxEvent> rows = readOnlyTx.execute(status ->
+                    outboxRepo.findRecentFromOthers(chunk, since, instanceId));
+            for (OutboxEvent row : rows) {
+                if (pushed.putIfAbsent(row.getId(), row.getCreatedAt()) == null) {
+                    push(row);
+                }
+            }
+        }
+    }
+
+    private void push(OutboxEvent row) {
+        try {
+            JsonNode payload = objectMapper.readTree(row.getPayload());
+            stream.push(new EnrollmentEvent(
+                    EnrollmentEvent.Type.valueOf(row.getEventType()),
+                    row.getEnrollmentId(),
+                    payload.path("userId").asText(null),
+                    longOrNull(payload.get("courseId")),
+                    longOrNull(payload.get("lessonId")),
+                    longOrNull(payload.get("certificateId")),
+                    objectMapper.treeToValue(payload.get("occurredAt"), LocalDateTime.class)));
+        } catch (JsonProcessingException | IllegalArgumentException ex) {
+            log.warn("Skipping unreadable outbox event {}: {}", row.getId(), ex.getMessage());
+        }
+    }
+
+    private static Long longOrNull(JsonNode node) {
+        return node == null || node.isNull() ? null : node.asLong();
+    }
+}
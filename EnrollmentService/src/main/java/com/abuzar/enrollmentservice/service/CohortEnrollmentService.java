@@ -0,0 +1,171 @@
+package com.abuzar.enrollmentservice.service;
+
+import com.abuzar.enrollmentservice.client.CourseCatalogClient;
+import com.abuzar.enrollmentservice.dto.CohortEnrollmentResult;
+import com.abuzar.enrollmentservice.events.EnrollmentEvent;
+import com.abuzar.enrollmentservice.models.Enrollment;
+import com.abuzar.enrollmentservice.repository.EnrollmentRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Enrolls a whole cohort of users into one course.
+ *
+ * <p>User ids are deduplicated in memory, then processed in chunks of {@code chunk-size}:
+ * one query finds the chunk's users that are already enrolled, the rest are inserted with
+ * {@code saveAllAndFlush} (JDBC batches of {@code hibernate.jdbc.batch_size}) and their
+ * ENROLLED events are published, all in one transaction per chunk. If a chunk collides with
+ * enrollments made concurrently it is retried once with a fresh lookup.
+ *
+ * <p>{@code userIds} is read once, front to back, and {@code max-users} is checked as it goes,
+ * so a lazily read upload is rejected before more than that many ids are held in memory.
+ */
+@Slf4j
+@Service
+public class CohortEnrollmentService {
+
+    private final EnrollmentRepository enrollmentRepo;
+    private final CourseCatalogClient courseCatalog;
+    private final TransactionTemplate txTemplate;
+    private final ApplicationEventPublisher events;
+    private final EntityManager entityManager;
+    private final int chunkSize;
+    private final int maxUsers;
+
+    public CohortEnrollmentService(EnrollmentRepository enrollmentRepo,
+                                   CourseCatalogClient courseCatalog,
+                                   TransactionTemplate txTemplate,
+                                   ApplicationEventPublisher events,
+                                   EntityManager entityManager,
+                                   @Value("${enrollment.cohort.chunk-size:1000}") int chunkSize,
+                                   @Value("${enrollment.cohort.max-users:100000}") int maxUsers) {
+        this.enrollmentRepo = enrollmentRepo;
+        this.courseCatalog = courseCatalog;
+        this.txTemplate = txTemplate;
+        this.events = events;
+        this.entityManager = entityManager;
+        this.chunkSize = chunkSize;
+        this.maxUsers = maxUsers;
+    }
+
+    public CohortEnrollmentResult enroll(Long courseId, Iterable<String> userIds) {
+        long start = System.nanoTime();
+        int received = 0;
+        Set<String> unique = new LinkedHashSet<>();
+        for (String userId : userIds) {
+            received++;
+            String trimmed = userId != null ? userId.trim() : "";
+            if (!trimmed.isEmpty()) {
+                unique.add(trimmed);
+            }
+            if (unique.size() > maxUsers) {
+                throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                        "A cohort can have at most " + maxUsers + " users");
+            }
+        }
+        if (unique.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At least one user ID is required");
+        }
+        courseCatalog.requireCourse(courseId);
+        log.info("Cohort import started - courseId: {}, received: {}, unique: {}", courseId, received, unique.size());
+
+        List<CohortEnrollmentResult.Chunk> chunks = new ArrayList<>();
+        List<String> chunk = new ArrayList<>(chunkSize);
+        for (String userId : unique) {
+            chunk.add(userId);
+            if (chunk.size() == chunkSize) {
+                chunks.add(processChunk(courseId, chunks.size(), chunk));
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(processChunk(courseId, chunks.size(), chunk));
+        }
+
+        int enrolled = chunks.stream().mapToInt(CohortEnrollmentResult.Chunk::getEnrolled).sum();
+        int already = chunks.stream().mapToInt(CohortEnrollmentResult.Chunk::getAlreadyEnrolled).sum();
+        int failed = chunks.stream()
+                .filter(c -> c.getStatus() == CohortEnrollmentResult.ChunkStatus.FAILED)
+                .mapToInt(CohortEnrollmentResult.Chunk::getSize).sum();
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+        log.info("Cohort import finished - courseId: {}, enrolled: {}, alreadyEnrolled: {}, failed: {}, {} ms",
+                courseId, enrolled, already, failed, durationMs);
+        return CohortEnrollmentResult.builder()
+                .courseId(courseId)
+                .received(received)
+                .unique(unique.size())
+                .enrolled(enrolled)
+                .alreadyEnrolled(already)
+                .failed(failed)
+                .durationMs(durationMs)
+                .chunks(chunks)
+                .build();
+    }
+
+    private CohortEnrollmentResult.Chunk processChunk(Long courseId, int index, List<String> userIds) {
+        CohortEnrollmentResult.Chunk.ChunkBuilder result = CohortEnrollmentResult.Chunk.builder()
+                .index(index)
+                .size(userIds.size());
+        for (int attempt = 1; ; attempt++) {
+            try {
+                int[] counts = txTemplate.execute(status -> insertMissing(courseId, userIds));
+                return result.status(CohortEnrollmentResult.ChunkStatus.COMMITTED)
+                        .enrolled(counts[0])
+                        .alreadyEnrolled(counts[1])
+                        .build();
+            } catch (DataIntegrityViolationException ex) {
+                if (attempt < 2) {
+                    log.info("Cohort chunk {} of course {} raced with other enrollments, retrying", index, courseId);
+                    continue;
+                }
+                log.warn("Cohort chunk {} of course {} failed: {}", index, courseId, ex.getMostSpecificCause().getMessage());
+                return result.status(CohortEnrollmentResult.ChunkStatus.FAILED)
+                        .message("Conflicting enrollments, please retry")
+                        .build();
+            } catch (RuntimeException ex) {
+                log.error("Cohort chunk {} of course {} failed", index, courseId, ex);
+                return result.status(CohortEnrollmentResult.ChunkStatus.FAILED)
+                        .message("Chunk could not be saved, please retry")
+                        .build();
+            }
+        }
+    }
+
+    /** Returns {enrolled, alreadyEnrolled}. */
+    private int[] insertMissing(Long courseId, List<String> userIds) {
+        Set<String> existing = new HashSet<>(enrollmentRepo.findEnrolledUserIds(courseId, userIds));
+        LocalDateTime now = LocalDateTime.now();
+        List<Enrollment> created = new ArrayList<>(userIds.size() - existing.size());
+        for (String userId : userIds) {
+            if (!existing.contains(userId)) {
+                Enrollment e = new Enrollment();
+                e.setUserId(userId);
+                e.setCourseId(courseId);
+                e.setEnrolledAt(now);
+                e.setStatus(Enrollment.Status.IN_PROGRESS);
+                created.add(e);
+            }
+        }
+        enrollmentRepo.saveAllAndFlush(created);
+        created.forEach(e -> events.publishEvent(
+                EnrollmentEvent.enrolled(e.getEnrollmentId(), e.getUserId(), courseId)));
+        // Flushed already; nothing of this chunk needs to stay managed, whatever persistence
+        // context the transaction runs in
+        entityManager.clear();
+        return new int[]{created.size(), existing.size()};
+    }
+}
@@ -0,0 +1,202 @@
+package com.abuzar.enrollmentservice.service;
+
+import com.abuzar.enrollmentservice.dto.CourseAnalytics;
+import com.abuzar.enrollmentservice.events.EnrollmentEvent;
+import com.abuzar.enrollmentservice.models.CourseStats;
+import com.abuzar.enrollmentservice.repository.CourseStatsRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps per-course enrollment, completion and lesson counters.
+ *
+ * <p>Committed {@link EnrollmentEvent}s bump in-memory {@link LongAdder}s, which are flushed
+ * to {@code course_stats} as additive upserts every {@code flush-interval-ms}. Reads are a
+ * primary-key lookup plus this instance's unflushed deltas, so they never scan enrollments
+ * or progress. Counters start at zero; use {@link #rebuild(Long)} to backfill a course from
+ * the source tables. Cancellations are made outside this service and only show up after a
+ * rebuild.
+ *
+ * <p>Each flushed batch carries the time of its last event, and a rebuild stamps the row with
+ * its start time: a batch from any instance whose events all predate the rebuild is already in
+ * the recount and is not added again.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CourseStatsService implements MeterBinder {
+
+    private final CourseStatsRepository statsRepo;
+    private final TransactionTemplate txTemplate;
+
+    // Entries are created, bumped and removed only inside compute(), so removing one never
+    // loses an increment made through a reference to it
+    private final Map<Long, Deltas> pending = new ConcurrentHashMap<>();
+    // A flush and a rebuild of the same course must not interleave
+    private final Object flushLock = new Object();
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void on(EnrollmentEvent event) {
+        pending.compute(event.getCourseId(), (courseId, current) -> {
+            Deltas deltas = current != null ? current : new Deltas();
+            // Stamped before the count, so a drain that sees the count also sees a time at least this late
+            deltas.lastEventAt = LocalDateTime.now();
+            switch (event.getType()) {
+                case ENROLLED -> deltas.enrollments.increment();
+                case LESSON_COMPLETED -> deltas.lessonsCompleted.increment();
+                case CERTIFICATE_ISSUED -> deltas.completions.increment();
+            }
+            return deltas;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${enrollment.analytics.flush-interval-ms:5000}")
+    public void flush() {
+        synchronized (flushLock) {
+            List<Drained> drained = new ArrayList<>();
+            pending.forEach((courseId, deltas) -> {
+                Drained d = deltas.drain(courseId);
+                if (!d.isEmpty()) {
+                    drained.add(d);
+                }
+                // Courses without new events since the drain are dropped
+                pending.computeIfPresent(courseId, (id, current) -> current.isEmpty() ? null : current);
+            });
+            if (drained.isEmpty()) {
+                return;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            try {
+                txTemplate.executeWithoutResult(status -> drained.forEach(d ->
+                        statsRepo.increment(d.courseId(), d.enrollments(), d.completions(), d.lessonsCompleted(),
+                                d.lastEventAt(), now)));
+                log.debug("Flushed course stats for {} courses", drained.size());
+            } catch (RuntimeException ex) {
+                // Put the deltas back so the next flush retries them
+                drained.forEach(d -> pending.compute(d.courseId(), (id, current) -> {
+                    Deltas deltas = current != null ? current : new Deltas();
+                    deltas.add(d);
+                    return deltas;
+                }));
+                log.error("Course stats flush failed for {} courses, will retry", drained.size(), ex);
+            }
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    public CourseAnalytics getAnalytics(Long courseId) {
+        CourseStats stored = statsRepo.findById(courseId).orElse(null);
+        Deltas unflushed = pending.get(courseId);
+
+        long enrollments = (stored != null ? stored.getEnrollments() : 0)
+                + (unflushed != null ? unflushed.enrollments.sum() : 0);
+        long completions = (stored != null ? stored.getCompletions() : 0)
+                + (unflushed != null ? unflushed.completions.sum() : 0);
+        long cancellations = stored != null ? stored.getCancellations() : 0;
+        long lessons = (stored != null ? stored.getLessonsCompleted() : 0)
+                + (unflushed != null ? unflushed.lessonsCompleted.sum() : 0);
+
+        return CourseAnalytics.builder()
+                .courseId(courseId)
+                .enrollments(enrollments)
+                .activeLearners(Math.max(0, enrollments - completions - cancellations))
+                .completions(completions)
+                .cancellations(cancellations)
+                .completionRate(enrollments == 0 ? 0 : (double) completions / enrollments)
+                .lessonsCompleted(lessons)
+                .averageLessonsCompleted(enrollments == 0 ? 0 : (double) lessons / enrollments)
+                .updatedAt(stored != null ? stored.getUpdatedAt() : null)
+                .build();
+    }
+
+    /**
+     * Recomputes one course's counters from the enrollments and progress tables. Meant for
+     * backfilling courses that predate the counters, and for picking up cancellations.
+     *
+     * <p>The recount is a single UPDATE, so increments flushed concurrently by other instances
+     * are applied before or after it rather than overwritten. Batches still unflushed anywhere
+     * are skipped when all their events predate the rebuild; a batch that spans it is added in
+     * full, so only events from the last flush interval before the rebuild can be counted twice.
+     */
+    public CourseAnalytics rebuild(Long courseId) {
+        synchronized (flushLock) {
+            // This instance's batches go out first, so none of them can span the rebuild
+            flush();
+            LocalDateTime rebuiltAt = LocalDateTime.now();
+            txTemplate.executeWithoutResult(status -> {
+                statsRepo.ensureRow(courseId);
+                statsRepo.recount(courseId, rebuiltAt);
+            });
+        }
+        log.info("Course stats rebuilt for course {}", courseId);
+        return getAnalytics(courseId);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("enrollment.analytics.pending.courses", pending, Map::size)
+                .description("Courses with counter deltas not yet flushed to course_stats")
+                .register(registry);
+    }
+
+    /** Unflushed counts for one course. */
+    private static final class Deltas {
+        final LongAdder enrollments = new LongAdder();
+        final LongAdder completions = new LongAdder();
+        final LongAdder lessonsCompleted = new LongAdder();
+        volatile LocalDateTime lastEventAt;
+
+        // Subtracts exactly what was read, so increments racing with the flush are kept for the next one.
+        // The time is read after the counts: it may be later than the last drained event, never earlier.
+        Drained drain(Long courseId) {
+            long e = enrollments.sum();
+            long c = completions.sum();
+            long l = lessonsCompleted.sum();
+            LocalDateTime last = lastEventAt;
+            enrollments.add(-e);
+            completions.add(-c);
+            lessonsCompleted.add(-l);
+            return new Drained(courseId, e, c, l, last);
+        }
+
+        void add(Drained d) {
+            if (lastEventAt == null || lastEventAt.isBefore(d.lastEventAt())) {
+                lastEventAt = d.lastEventAt();
+            }
+            enrollments.add(d.enrollments());
+            completions.add(d.completions());
+            lessonsCompleted.add(d.lessonsCompleted());
+        }
+
+        boolean isEmpty() {
+            return enrollments.sum() == 0 && completions.sum() == 0 && lessonsCompleted.sum() == 0;
+        }
+    }
+
+    private record Drained(Long courseId, long enrollments, long completions, long lessonsCompleted,
+                           LocalDateTime lastEventAt) {
+        boolean isEmpty() {
+            return enrollments == 0 && completions == 0 && lessonsCompleted == 0;
+        }
+    }
+}
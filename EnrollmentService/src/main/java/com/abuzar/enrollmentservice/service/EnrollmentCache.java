@@ -0,0 +1,64 @@
+package com.abuzar.enrollmentservice.service;
+
+import com.abuzar.enrollmentservice.dto.EnrollmentSnapshot;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of {@link EnrollmentSnapshot}s by enrollment id, bounded by size and TTL.
+ * Writers call {@link #evict(Long)} when an enrollment is created or its status changes; inside a
+ * transaction the entry is dropped again after commit so a concurrent reader cannot re-cache the
+ * pre-commit row.
+ */
+@Slf4j
+@Component
+public class EnrollmentCache implements MeterBinder {
+
+    private final Cache<Long, EnrollmentSnapshot> cache;
+
+    public EnrollmentCache(@Value("${enrollment.cache.enrollments.max-size:50000}") long maxSize,
+                           @Value("${enrollment.cache.enrollments.ttl:10m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public EnrollmentSnapshot get(Long enrollmentId, Function<Long, EnrollmentSnapshot> loader) {
+        return cache.get(enrollmentId, loader);
+    }
+
+    public void evict(Long enrollmentId) {
+        cache.invalidate(enrollmentId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(enrollmentId);
+                }
+            });
+        }
+        log.debug("Enrollment {} evicted from cache", enrollmentId);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "enrollments");
+        Gauge.builder("enrollment.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("Hit ratio of the enrollment lookup cache since startup")
+                .register(registry);
+    }
+}
@@ -0,0 +1,270 @@
+package com.abuzar.enrollmentservice.service;
+
+import com.abuzar.enrollmentservice.util.LessonBitmap;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * Dumps the enrollment tables as NDJSON or CSV. Rows are read through a forward-only,
+ * read-only cursor and written as they arrive, so memory use does not depend on table size:
+ * on MySQL the fetch size is {@link Integer#MIN_VALUE}, which makes Connector/J stream row by
+ * row instead of buffering the whole result; other drivers get {@code fetch-size}.
+ *
+ * <p>The {@code progress} export also expands {@code progress_bitmaps} into one row per
+ * completed lesson, so it is complete whichever progress store is in use.
+ */
+@Slf4j
+@Component
+public class EnrollmentExporter {
+
+    public enum Table {
+        ENROLLMENTS("enrollment_id, user_id, course_id, enrolled_at, status, version, last_modified_at", "enrollments"),
+        PROGRESS("progress_id, enrollment_id, lesson_id, completed, completed_at", "progress"),
+        CERTIFICATES("certificate_id, enrollment_id, issued_at, url", "certificates");
+
+        private final String[] columns;
+        private final String sql;
+
+        Table(String columns, String table) {
+            this.columns = columns.split(", ");
+            // Primary-key order is a plain scan of the clustered index
+            this.sql = "select " + columns + " from " + table + " order by " + this.columns[0];
+        }
+
+        public String fileName(Format format) {
+            return name().toLowerCase(Locale.ROOT) + "." + format.extension;
+        }
+    }
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        public final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+    }
+
+    private static final String BITMAP_SQL =
+            "select enrollment_id, lessons, last_lesson_id, last_completed_at from progress_bitmaps order by enrollment_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTx;
+    private final int fetchSize;
+    private final int flushEvery;
+
+    public EnrollmentExporter(JdbcTemplate jdbcTemplate,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${enrollment.export.fetch-size:1000}") int fetchSize,
+                              @Value("${enrollment.export.flush-every:1000}") int flushEvery) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+        this.flushEvery = flushEvery;
+        // Read-only: one consistent snapshot, and routed to the replica when one is configured
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    /** Writes the whole table to {@code out} and returns the number of rows written. */
+    public long export(Table table, Format format, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        try (RowWriter writer = format == Format.CSV
+                ? new CsvRowWriter(table.columns, out) : new NdjsonRowWriter(table.columns, out)) {
+            readOnlyTx.executeWithoutResult(status -> {
+                stream(table.sql, writer::row);
+                if (table == Table.PROGRESS) {
+                    stream(BITMAP_SQL, rs -> writeBitmapRows(rs, writer));
+                }
+            });
+            log.info("Exported {} rows of {} as {} in {} ms", writer.rows, table, format,
+                    (System.nanoTime() - start) / 1_000_000);
+            return writer.rows;
+        } catch (UncheckedIOException ex) {
+            // Usually the client went away mid-download
+            throw ex.getCause();
+        }
+    }
+
+    private void stream(String sql, RowCallbackHandler handler) {
+        PreparedStatementCreator forwardOnly = con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            boolean mysql = con.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("mysql");
+            ps.setFetchSize(mysql ? Integer.MIN_VALUE : fetchSize);
+            return ps;
+        };
+        jdbcTemplate.query(forwardOnly, handler);
+    }
+
+    private static void writeBitmapRows(ResultSet rs, RowWriter writer) throws SQLException {
+        long enrollmentId = rs.getLong("enrollment_id");
+        long lastLessonId = rs.getLong("last_lesson_id");
+        Timestamp lastCompletedAt = rs.getTimestamp("last_completed_at");
+        LessonBitmap.decode(rs.getBytes("lessons")).lessonIds().forEach(lessonId ->
+                writer.bitmapRow(enrollmentId, lessonId,
+                        lessonId == lastLessonId && lastCompletedAt != null ? lastCompletedAt.toLocalDateTime() : null));
+    }
+
+    /** Writes rows in one format, flushing every {@code flush-every} rows. */
+    private abstract class RowWriter implements AutoCloseable {
+
+        final String[] columns;
+        long rows;
+        private final Object[] values;
+
+        RowWriter(String[] columns) {
+            this.columns = columns;
+            this.values = new Object[columns.length];
+        }
+
+        void row(ResultSet rs) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                Object value = rs.getObject(i + 1);
+                values[i] = value instanceof Timestamp ts ? ts.toLocalDateTime() : value;
+            }
+            write(values);
+        }
+
+        /** A {@code progress} row rebuilt from a bitmap; there is no progress_id. */
+        void bitmapRow(long enrollmentId, long lessonId, LocalDateTime completedAt) {
+            values[0] = null;
+            values[1] = enrollmentId;
+            values[2] = lessonId;
+            values[3] = Boolean.TRUE;
+            values[4] = completedAt;
+            write(values);
+        }
+
+        private void write(Object[] values) {
+            try {
+                writeValues(values);
+                if (++rows % flushEvery == 0) {
+                    flush();
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        abstract void writeValues(Object[] values) throws IOException;
+
+        abstract void flush() throws IOException;
+
+        @Override
+        public abstract void close() throws IOException;
+    }
+
+    private final class NdjsonRowWriter extends RowWriter {
+
+        private final JsonGenerator gen;
+
+        NdjsonRowWriter(String[] columns, OutputStream out) throws IOException {
+            super(columns);
+            this.gen = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+            // One object per line
+            gen.setRootValueSeparator(null);
+        }
+
+        @Override
+        void writeValues(Object[] values) throws IOException {
+            gen.writeStartObject();
+            for (int i = 0; i < values.length; i++) {
+                Object value = values[i];
+                if (value == null) {
+                    gen.writeNullField(columns[i]);
+                } else if (value instanceof Number || value instanceof Boolean) {
+                    gen.writeObjectField(columns[i], value);
+                } else {
+                    gen.writeStringField(columns[i], value.toString());
+                }
+            }
+            gen.writeEndObject();
+            gen.writeRaw('\n');
+        }
+
+        @Override
+        void flush() throws IOException {
+            gen.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            gen.close();
+        }
+    }
+
+    private final class CsvRowWriter extends RowWriter {
+
+        private final Writer out;
+
+        CsvRowWriter(String[] columns, OutputStream out) throws IOException {
+            super(columns);
+            this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            this.out.write(String.join(",", columns));
+            this.out.write("\r\n");
+        }
+
+        @Override
+        void writeValues(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                if (values[i] != null) {
+                    out.write(escape(values[i].toString()));
+                }
+            }
+            out.write("\r\n");
+        }
+
+        @Override
+        void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+
+        // RFC 4180: quote fields containing separators, quotes or line breaks
+        private static String escape(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                    return '"' + value.replace("\"", "\"\"") + '"';
+                }
+            }
+            return value;
+        }
+    }
+}
@@ -1,19 +1,29 @@
 package com.abuzar.enrollmentservice.service;
 
+import com.abuzar.enrollmentservice.dto.EnrollmentPage;
+import com.abuzar.enrollmentservice.dto.EnrollmentSnapshot;
+import com.abuzar.enrollmentservice.dto.EnrollmentSummary;
+import com.abuzar.enrollmentservice.dto.EnrollmentVersion;
+import com.abuzar.enrollmentservice.events.EnrollmentEvent;
 import com.abuzar.enrollmentservice.models.Certificate;
 import com.abuzar.enrollmentservice.models.Enrollment;
 import com.abuzar.enrollmentservice.models.Progress;
 import com.abuzar.enrollmentservice.repository.CertificateRepository;
 import com.abuzar.enrollmentservice.repository.EnrollmentRepository;
-import com.abuzar.enrollmentservice.repository.ProgressRepository;
-import jakarta.transaction.Transactional;
+import com.abuzar.enrollmentservice.util.ConstraintUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Slf4j
@@ -22,35 +32,91 @@ import java.util.List;
 public class EnrollmentService {
 
     private final EnrollmentRepository enrollmentRepo;
-    private final ProgressRepository progressRepo;
     private final CertificateRepository certificateRepo;
+    private final ProgressStore progressStore;
+    private final EnrollmentCache enrollmentCache;
+    private final ApplicationEventPublisher events;
+    private final TransactionTemplate txTemplate;
 
     @Transactional
     public Enrollment enroll(String userId, Long courseId) {
         log.info("Enrolling user {} in course {}", userId, courseId);
 
-        // Check if already enrolled
-        List<Enrollment> existing = enrollmentRepo.findByUserIdAndCourseId(userId, courseId);
-        if (!existing.isEmpty()) {
-            log.warn("User {} is already enrolled in course {}", userId, courseId);
-            throw new ResponseStatusException(HttpStatus.CONFLICT,
-                    "You are already enrolled in this course");
-        }
-
         Enrollment e = new Enrollment();
         e.setUserId(userId);
         e.setCourseId(courseId);
         e.setEnrolledAt(LocalDateTime.now());
         e.setStatus(Enrollment.Status.IN_PROGRESS);
 
-        Enrollment saved = enrollmentRepo.save(e);
+        // The (user_id, course_id) unique key is the duplicate check: one INSERT, no prior lookup
+        Enrollment saved;
+        try {
+            saved = enrollmentRepo.saveAndFlush(e);
+        } catch (DataIntegrityViolationException ex) {
+            if (!ConstraintUtil.violates(ex, "uk_enrollments_user_course")) {
+                throw ex;
+            }
+            log.warn("User {} is already enrolled in course {}", userId, courseId);
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "You are already enrolled in this course");
+        }
+        enrollmentCache.evict(saved.getEnrollmentId());
+        events.publishEvent(EnrollmentEvent.enrolled(saved.getEnrollmentId(), userId, courseId));
         log.info("Enrollment created: id={}", saved.getEnrollmentId());
         return saved;
     }
 
+    @Transactional(readOnly = true)
     public List<Enrollment> getMyEnrollments(String userId) {
         log.debug("Fetching enrollments for user: {}", userId);
-        return enrollmentRepo.findByUserId(userId);
+        List<Enrollment> enrollments = enrollmentRepo.findWithProgressByUserIdOrderByEnrollmentId(userId);
+        progressStore.fillProgress(enrollments);
+        return enrollments;
+    }
+
+    /** Version stamp of all the user's enrollments, for ETags on the /me listings. */
+    @Transactional(readOnly = true)
+    public EnrollmentVersion getMyEnrollmentsVersion(String userId) {
+        return enrollmentRepo.findVersionByUserId(userId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<EnrollmentSummary> getMyEnrollmentSummaries(String userId) {
+        log.debug("Fetching enrollment summaries for user: {}", userId);
+        return enrollmentRepo.findSummariesByUserId(userId);
+    }
+
+    @Transactional(readOnly = true)
+    public EnrollmentPage<Enrollment> getMyEnrollmentPage(String userId, Long after, int limit) {
+        log.debug("Fetching enrollment page for user: {}, after: {}, limit: {}", userId, after, limit);
+        List<Long> ids = enrollmentRepo.findIdPageByUserId(userId, cursor(after), PageRequest.of(0, limit));
+        if (ids.isEmpty()) {
+            return new EnrollmentPage<>(List.of(), null);
+        }
+        List<Enrollment> items = enrollmentRepo.findWithProgressByEnrollmentIdInOrderByEnrollmentId(ids);
+        progressStore.fillProgress(items);
+        return new EnrollmentPage<>(items, nextCursor(ids.size(), limit, ids.get(ids.size() - 1)));
+    }
+
+    @Transactional(readOnly = true)
+    public EnrollmentPage<EnrollmentSummary> getMyEnrollmentSummaryPage(String userId, Long after, int limit) {
+        log.debug("Fetching enrollment summary page for user: {}, after: {}, limit: {}", userId, after, limit);
+        List<EnrollmentSummary> items =
+                enrollmentRepo.findSummaryPageByUserId(userId, cursor(after), PageRequest.of(0, limit));
+        if (items.isEmpty()) {
+            return new EnrollmentPage<>(List.of(), null);
+        }
+        Long last = items.get(items.size() - 1).getEnrollmentId();
+        return new EnrollmentPage<>(items, nextCursor(items.size(), limit, last));
+    }
+
+    private static long cursor(Long after) {
+        return after != null ? after : 0L;
+    }
+
+    private static Long nextCursor(int size, int limit, Long lastId) {
+        // A short page means there is nothing after it
+        return size < limit ? null : lastId;
     }
 
     public Enrollment getEnrollment(Long enrollmentId) {
@@ -62,58 +128,115 @@ public class EnrollmentService {
                 });
     }
 
-    @Transactional
+    /** The enrollment with its progress rows, loaded in one query for serialization. */
+    @Transactional(readOnly = true)
+    public Enrollment getEnrollmentWithProgress(Long enrollmentId) {
+        log.debug("Fetching enrollment with progress: {}", enrollmentId);
+        Enrollment enrollment = enrollmentRepo.findWithProgressByEnrollmentId(enrollmentId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Enrollment not found"));
+        progressStore.fillProgress(List.of(enrollment));
+        return enrollment;
+    }
+
+    /** Version stamp of one enrollment: an aggregate over its primary key, no entity is loaded. */
+    @Transactional(readOnly = true)
+    public EnrollmentVersion getEnrollmentVersion(Long enrollmentId) {
+        EnrollmentVersion version = enrollmentRepo.findVersionById(enrollmentId);
+        if (version.getCount() == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Enrollment not found");
+        }
+        return version;
+    }
+
+    /**
+     * Not transactional on purpose: the {@link ProgressStore} runs the write in its own (possibly
+     * group-committed) transaction so that a repeat completion returns the existing row.
+     */
     public Progress markLessonComplete(Long enrollmentId, Long lessonId,
                                        String currentUserId, String currentUserRole) {
         log.info("Marking lesson complete - enrollmentId: {}, lessonId: {}, user: {}",
                 enrollmentId, lessonId, currentUserId);
 
-        Enrollment enrollment = getEnrollment(enrollmentId);
+        EnrollmentSnapshot enrollment =
+                getOwnedEnrollment(enrollmentId, currentUserId, currentUserRole, "complete lessons");
 
-        if (!enrollment.getUserId().equals(currentUserId) &&
-                !("ADMIN".equalsIgnoreCase(currentUserRole))) {
-            log.warn("User {} not authorized to mark lesson complete for enrollment {}",
-                    currentUserId, enrollmentId);
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN,
-                    "You are not authorized to complete lessons for this enrollment");
-        }
+        return progressStore.complete(enrollment, lessonId);
+    }
 
-        // Check if progress already exists
-        Progress p = progressRepo.findByEnrollment_EnrollmentIdAndLessonId(enrollmentId, lessonId)
-                .orElse(new Progress());
+    /**
+     * Completes many lessons of one enrollment at once. Lessons that are already completed are
+     * returned as-is.
+     */
+    public List<Progress> markLessonsComplete(Long enrollmentId, Collection<Long> lessonIds,
+                                              String currentUserId, String currentUserRole) {
+        log.info("Marking {} lessons complete - enrollmentId: {}, user: {}",
+                lessonIds.size(), enrollmentId, currentUserId);
 
-        if (p.getProgressId() != null && p.isCompleted()) {
-            log.info("Lesson {} already completed for enrollment {}", lessonId, enrollmentId);
-            return p;
-        }
+        EnrollmentSnapshot enrollment =
+                getOwnedEnrollment(enrollmentId, currentUserId, currentUserRole, "complete lessons");
 
-        p.setEnrollment(enrollment);
-        p.setLessonId(lessonId);
-        p.setCompleted(true);
-        p.setCompletedAt(LocalDateTime.now());
+        return progressStore.completeAll(enrollment, lessonIds);
+    }
 
-        Progress saved = progressRepo.save(p);
-        log.info("Progress saved: id={}", saved.getProgressId());
-        return saved;
+    public List<Long> getCompletedLessonIds(Long enrollmentId, String currentUserId, String currentUserRole) {
+        getOwnedEnrollment(enrollmentId, currentUserId, currentUserRole, "view progress");
+        return progressStore.completedLessonIds(enrollmentId);
     }
 
-    @Transactional
-    public Certificate generateCertificate(Long enrollmentId,
-                                           String currentUserId,
-                                           String currentUserRole) {
-        log.info("Generating certificate for enrollment: {}, user: {}",
-                enrollmentId, currentUserId);
+    /**
+     * Cached lookup of the enrollment's owner, course and status; repeated ownership checks
+     * (e.g. one per lesson click) are served from memory.
+     */
+    public EnrollmentSnapshot getEnrollmentSnapshot(Long enrollmentId) {
+        return enrollmentCache.get(enrollmentId, id -> EnrollmentSnapshot.of(getEnrollment(id)));
+    }
 
-        Enrollment enrollment = getEnrollment(enrollmentId);
+    /**
+     * Checks that the caller owns the enrollment or is an admin.
+     */
+    public EnrollmentSnapshot getOwnedEnrollment(Long enrollmentId, String currentUserId,
+                                                 String currentUserRole, String action) {
+        EnrollmentSnapshot enrollment = getEnrollmentSnapshot(enrollmentId);
+        checkOwnerOrAdmin(enrollment.getUserId(), enrollmentId, currentUserId, currentUserRole, action);
+        return enrollment;
+    }
 
-        // Only owner or admin
-        if (!enrollment.getUserId().equals(currentUserId) &&
-                !("ADMIN".equalsIgnoreCase(currentUserRole))) {
-            log.warn("User {} not authorized to generate certificate for enrollment {}",
-                    currentUserId, enrollmentId);
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN,
-                    "You are not authorized to generate a certificate for this enrollment");
+    @Transactional(readOnly = true)
+    public Certificate findCertificate(Long enrollmentId) {
+        return certificateRepo.findByEnrollmentEnrollmentId(enrollmentId);
+    }
+
+    public Certificate issueCertificate(Long enrollmentId, String url) {
+        return issueCertificate(enrollmentId, url, () -> { });
+    }
+
+    /**
+     * Marks the enrollment COMPLETED and stores its certificate; an existing certificate is
+     * returned unchanged. {@code storeFile} runs only when this call inserts the certificate row,
+     * before its transaction commits, so the certificate workers publish their PDF only when they
+     * win and a late render never replaces the file behind an issued certificate.
+     *
+     * <p>Not transactional on purpose: the insert runs in its own transaction, and when the
+     * certificates.enrollment_id unique key reports that another worker or instance got there
+     * first, that transaction is rolled back and the winner's certificate is returned.
+     */
+    public Certificate issueCertificate(Long enrollmentId, String url, Runnable storeFile) {
+        log.info("Issuing certificate for enrollment: {}", enrollmentId);
+        try {
+            return txTemplate.execute(status -> insertCertificate(enrollmentId, url, storeFile));
+        } catch (DataIntegrityViolationException ex) {
+            if (!ConstraintUtil.violates(ex, "uk_certificates_enrollment")) {
+                throw ex;
+            }
+            Certificate existing = certificateRepo.findByEnrollmentEnrollmentId(enrollmentId);
+            log.info("Certificate for enrollment {} was issued concurrently: certificateId={}",
+                    enrollmentId, existing.getCertificateId());
+            return existing;
         }
+    }
+
+    private Certificate insertCertificate(Long enrollmentId, String url, Runnable storeFile) {
+        Enrollment enrollment = getEnrollment(enrollmentId);
 
         // Check if certificate already exists
         Certificate existingCert = certificateRepo.findByEnrollmentEnrollmentId(enrollmentId);
@@ -123,16 +246,32 @@ public class EnrollmentService {
             return existingCert;
         }
 
-        enrollment.setStatus(Enrollment.Status.COMPLETED);
-        enrollmentRepo.save(enrollment);
+        // Status and version in one atomic UPDATE, so a concurrent lesson completion's bump is kept
+        enrollmentRepo.updateStatus(enrollmentId, Enrollment.Status.COMPLETED, LocalDateTime.now());
+        enrollmentCache.evict(enrollmentId);
 
         Certificate cert = new Certificate();
         cert.setEnrollment(enrollment);
         cert.setIssuedAt(LocalDateTime.now());
-        cert.setUrl("https://example.com/certs/" + enrollmentId + ".pdf");
+        cert.setUrl(url);
 
-        Certificate saved = certificateRepo.save(cert);
+        // Flushed here so a duplicate fails inside this transaction
+        Certificate saved = certificateRepo.saveAndFlush(cert);
+        storeFile.run();
+        events.publishEvent(EnrollmentEvent.certificateIssued(
+                enrollmentId, enrollment.getUserId(), enrollment.getCourseId(), saved.getCertificateId()));
         log.info("Certificate generated: id={}", saved.getCertificateId());
         return saved;
     }
+
+    private void checkOwnerOrAdmin(String ownerId, Long enrollmentId, String currentUserId,
+                                   String currentUserRole, String action) {
+        if (!ownerId.equals(currentUserId) &&
+                !("ADMIN".equalsIgnoreCase(currentUserRole))) {
+            log.warn("User {} not authorized to {} for enrollment {}",
+                    currentUserId, action, enrollmentId);
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN,
+                    "You are not authorized to " + action + " for this enrollment");
+        }
+    }
 }
\ No newline at end of file
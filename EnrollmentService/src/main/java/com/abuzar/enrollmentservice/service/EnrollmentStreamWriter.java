@@ -0,0 +1,55 @@
+package com.abuzar.enrollmentservice.service;
+
+import com.abuzar.enrollmentservice.dto.EnrollmentPage;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes all enrollments of a user as one JSON array, fetching them in keyset batches and
+ * flushing after each batch, so only one batch is ever held in memory.
+ */
+@Slf4j
+@Component
+public class EnrollmentStreamWriter {
+
+    private final EnrollmentService service;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter itemWriter;
+
+    public EnrollmentStreamWriter(EnrollmentService service, ObjectMapper objectMapper) {
+        this.service = service;
+        this.objectMapper = objectMapper;
+        // Flushing is done once per batch, not once per item
+        this.itemWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    public void writeMyEnrollments(String userId, boolean summary, int batchSize, OutputStream out)
+            throws IOException {
+        long written = 0;
+        try (JsonGenerator gen = objectMapper.createGenerator(out, JsonEncoding.UTF8)) {
+            gen.writeStartArray();
+            Long after = null;
+            do {
+                EnrollmentPage<?> page = summary
+                        ? service.getMyEnrollmentSummaryPage(userId, after, batchSize)
+                        : service.getMyEnrollmentPage(userId, after, batchSize);
+                for (Object item : page.getItems()) {
+                    itemWriter.writeValue(gen, item);
+                }
+                gen.flush();
+                written += page.getItems().size();
+                after = page.getNextCursor();
+            } while (after != null);
+            gen.writeEndArray();
+        }
+        log.info("Streamed {} enrollments for user: {}", written, userId);
+    }
+}
@@ -0,0 +1,219 @@
+package com.abuzar.enrollmentservice.service;
+
+import com.abuzar.enrollmentservice.dto.EnrollmentSnapshot;
+import com.abuzar.enrollmentservice.dto.EnrollmentUpdate;
+import com.abuzar.enrollmentservice.events.EnrollmentEvent;
+import com.abuzar.enrollmentservice.exception.RetryLaterException;
+import com.abuzar.enrollmentservice.models.Enrollment;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-Sent Events for enrollment progress. Open streams are {@link SseEmitter}s kept per
+ * enrollment id; they hold no request thread while idle (async servlet), only the socket.
+ *
+ * <p>Committed {@link EnrollmentEvent}s are pushed to the enrollment's streams on a small
+ * {@code push-} pool, so a slow client never delays the transaction that made the change.
+ * Changes committed on other instances arrive through {@link ClusterEnrollmentEvents}.
+ * Every {@code heartbeat-interval-ms} each stream gets a comment line, sent by the same pool,
+ * which keeps proxies from closing it and detects clients that went away. Streams end after
+ * {@code timeout}; browsers reconnect on their own.
+ */
+@Slf4j
+@Service
+public class EnrollmentUpdateStream implements MeterBinder {
+
+    private static final int HEARTBEAT_BATCH_SIZE = 500;
+
+    private final ProgressStore progressStore;
+    private final Duration timeout;
+    private final int maxConnections;
+    private final ThreadPoolExecutor pushExecutor;
+
+    private final Map<Long, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+
+    public EnrollmentUpdateStream(ProgressStore progressStore,
+                                  @Value("${enrollment.events.timeout:30m}") Duration timeout,
+                                  @Value("${enrollment.events.max-connections:10000}") int maxConnections,
+                                  @Value("${enrollment.events.push-threads:2}") int pushThreads) {
+        this.progressStore = progressStore;
+        this.timeout = timeout;
+        this.maxConnections = maxConnections;
+        this.pushExecutor = new ThreadPoolExecutor(pushThreads, pushThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(10_000),
+                new CustomizableThreadFactory("enrollment-push-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Ends all streams as soon as shutdown starts: graceful shutdown waits for in-flight
+     * requests, and an open stream would keep it waiting for the whole grace period. Clients
+     * reconnect to another instance.
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void closeStreams() {
+        subscribers.values().forEach(set -> set.forEach(SseEmitter::complete));
+        subscribers.clear();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pushExecutor.shutdownNow();
+    }
+
+    /**
+     * Opens a stream for an enrollment the caller is allowed to see. The first event is the
+     * current state so nothing committed between the client's last read and now is lost.
+     */
+    public SseEmitter subscribe(EnrollmentSnapshot enrollment) {
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            log.warn("Too many open enrollment streams ({}), rejecting enrollment {}",
+                    maxConnections, enrollment.getEnrollmentId());
+            throw new RetryLaterException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Too many open event streams, please retry later", Duration.ofSeconds(30));
+        }
+
+        Long enrollmentId = enrollment.getEnrollmentId();
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        subscribers.compute(enrollmentId, (id, emitters) -> {
+            Set<SseEmitter> set = emitters != null ? emitters : new CopyOnWriteArraySet<>();
+            set.add(emitter);
+            return set;
+        });
+        Runnable remove = () -> unsubscribe(enrollmentId, emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(ex -> remove.run());
+
+        send(enrollmentId, emitter, SseEmitter.event()
+                .name("snapshot")
+                .reconnectTime(5_000)
+                .data(EnrollmentUpdate.builder()
+                        .enrollmentId(enrollmentId)
+                        .status(enrollment.getStatus())
+                        .completedLessons(progressStore.completedLessonIds(enrollmentId).size())
+                        .occurredAt(LocalDateTime.now())
+                        .build()));
+        log.debug("Enrollment stream opened - enrollmentId: {}, open: {}", enrollmentId, connections.get());
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void on(EnrollmentEvent event) {
+        push(event);
+    }
+
+    /** Sends a committed event to the enrollment's open streams on this instance, if any. */
+    public void push(EnrollmentEvent event) {
+        Set<SseEmitter> emitters = subscribers.get(event.getEnrollmentId());
+        if (emitters == null || emitters.isEmpty() || event.getType() == EnrollmentEvent.Type.ENROLLED) {
+            return;
+        }
+        EnrollmentUpdate update = EnrollmentUpdate.builder()
+                .enrollmentId(event.getEnrollmentId())
+                .status(event.getType() == EnrollmentEvent.Type.CERTIFICATE_ISSUED ? Enrollment.Status.COMPLETED : null)
+                .lessonId(event.getLessonId())
+                .certificateId(event.getCertificateId())
+                .occurredAt(event.getOccurredAt())
+                .build();
+        String name = event.getType().name().toLowerCase().replace('_', '-');
+        try {
+            pushExecutor.execute(() -> emitters.forEach(emitter ->
+                    send(event.getEnrollmentId(), emitter, SseEmitter.event().name(name).data(update))));
+        } catch (RejectedExecutionException ex) {
+            // Clients resync from the snapshot event when they reconnect
+            log.warn("Enrollment push queue full, dropping {} for enrollment {}", name, event.getEnrollmentId());
+        }
+    }
+
+    /**
+     * Only hands the streams to the push pool in batches: the scheduler thread is shared with the
+     * outbox relay and the course stats flush, and a slow client must not hold it up.
+     */
+    @Scheduled(fixedDelayString = "${enrollment.events.heartbeat-interval-ms:25000}")
+    public void heartbeat() {
+        List<Map.Entry<Long, SseEmitter>> batch = new ArrayList<>(HEARTBEAT_BATCH_SIZE);
+        subscribers.forEach((enrollmentId, emitters) -> emitters.forEach(emitter -> {
+            batch.add(Map.entry(enrollmentId, emitter));
+            if (batch.size() == HEARTBEAT_BATCH_SIZE) {
+                submitHeartbeats(List.copyOf(batch));
+                batch.clear();
+            }
+        }));
+        if (!batch.isEmpty()) {
+            submitHeartbeats(List.copyOf(batch));
+        }
+    }
+
+    private void submitHeartbeats(List<Map.Entry<Long, SseEmitter>> batch) {
+        try {
+            pushExecutor.execute(() -> batch.forEach(entry ->
+                    send(entry.getKey(), entry.getValue(), SseEmitter.event().comment("keep-alive"))));
+        } catch (RejectedExecutionException ex) {
+            // The next heartbeat comes soon enough
+            log.debug("Enrollment push queue full, skipping {} heartbeats", batch.size());
+        }
+    }
+
+    /** Enrollments with at least one open stream on this instance. */
+    public Set<Long> streamedEnrollmentIds() {
+        return Set.copyOf(subscribers.keySet());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("enrollment.sse.connections", connections, AtomicInteger::get)
+                .description("Open enrollment progress event streams")
+                .register(registry);
+    }
+
+    private void send(Long enrollmentId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException ex) {
+            // Client disconnected or the stream already completed; the container finishes the request
+            log.debug("Enrollment stream for {} closed: {}", enrollmentId, ex.getMessage());
+            unsubscribe(enrollmentId, emitter);
+        }
+    }
+
+    private void unsubscribe(Long enrollmentId, SseEmitter emitter) {
+        // Atomic per key, so a concurrent subscribe never lands in a set that is being dropped
+        subscribers.computeIfPresent(enrollmentId, (id, emitters) -> {
+            if (emitters.remove(emitter)) {
+                connections.decrementAndGet();
+            }
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
@@ -0,0 +1,70 @@
+package com.abuzar.enrollmentservice.service;
+
+import com.abuzar.enrollmentservice.dto.EnrollmentSnapshot;
+import com.abuzar.enrollmentservice.repository.ProgressRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Moves existing {@code progress} rows into lesson bitmaps after startup, one enrollment per
+ * transaction, on a background thread. Enrollments touched by a request are folded on the
+ * spot by {@link BitmapProgressStore}, so the service is fully usable while this runs.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "enrollment.progress.store", havingValue = "bitmap")
+@RequiredArgsConstructor
+public class ProgressBitmapMigration implements ApplicationRunner {
+
+    private final BitmapProgressStore store;
+    private final ProgressRepository progressRepo;
+
+    @Value("${enrollment.progress.bitmap.migrate-on-startup:true}")
+    private boolean migrateOnStartup;
+
+    @Value("${enrollment.progress.bitmap.migration-page-size:500}")
+    private int pageSize;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!migrateOnStartup) {
+            return;
+        }
+        Thread worker = new Thread(this::migrateAll, "progress-bitmap-migration");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    void migrateAll() {
+        long after = 0;
+        int enrollments = 0;
+        long rows = 0;
+        List<EnrollmentSnapshot> page;
+        do {
+            page = progressRepo.findEnrollmentsWithRows(after, PageRequest.of(0, pageSize));
+            for (EnrollmentSnapshot enrollment : page) {
+                try {
+                    rows += store.migrate(enrollment);
+                    enrollments++;
+                } catch (DataAccessException | IllegalArgumentException ex) {
+                    // Folded concurrently by a request, or ids the bitmap cannot hold: leave the rows
+                    log.warn("Skipping progress migration of enrollment {}: {}",
+                            enrollment.getEnrollmentId(), ex.getMessage());
+                }
+            }
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1).getEnrollmentId();
+            }
+        } while (page.size() == pageSize);
+        log.info("Progress bitmap migration finished - enrollments: {}, rows moved: {}", enrollments, rows);
+    }
+}
@@ -0,0 +1,32 @@
+package com.abuzar.enrollmentservice.service;
+
+import com.abuzar.enrollmentservice.dto.EnrollmentSnapshot;
+import com.abuzar.enrollmentservice.models.Enrollment;
+import com.abuzar.enrollmentservice.models.Progress;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Where completed lessons are kept, selected with {@code enrollment.progress.store}:
+ * {@code rows} (one {@link Progress} row per lesson, the default) or {@code bitmap}
+ * (one compressed bitmap per enrollment). Callers have already checked ownership.
+ *
+ * <p>Completing an already completed lesson is not an error and publishes no event.
+ */
+public interface ProgressStore {
+
+    Progress complete(EnrollmentSnapshot enrollment, Long lessonId);
+
+    /** Returns one entry per distinct lesson id, in request order. */
+    List<Progress> completeAll(EnrollmentSnapshot enrollment, Collection<Long> lessonIds);
+
+    List<Long> completedLessonIds(Long enrollmentId);
+
+    /**
+     * Makes each enrollment's {@code progressList} show its completed lessons. The enrollments
+     * were loaded with their progress rows inside the caller's read-only transaction; a store
+     * that keeps progress elsewhere replaces those rows, which are never flushed.
+     */
+    void fillProgress(List<Enrollment> enrollments);
+}
@@ -0,0 +1,337 @@
+package com.abuzar.enrollmentservice.service;
+
+import com.abuzar.enrollmentservice.dto.EnrollmentSnapshot;
+import com.abuzar.enrollmentservice.events.EnrollmentEvent;
+import com.abuzar.enrollmentservice.models.Enrollment;
+import com.abuzar.enrollmentservice.models.Progress;
+import com.abuzar.enrollmentservice.repository.EnrollmentRepository;
+import com.abuzar.enrollmentservice.repository.ProgressRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Row-per-lesson {@link ProgressStore}, the default.
+ *
+ * <p>By default each completion is its own insert-or-get transaction. With
+ * {@code enrollment.progress.group-commit.enabled=true}, completions arriving within
+ * {@code max-wait} (or until {@code max-batch-size} is reached) are inserted by one
+ * committer thread as a single batched transaction. Each caller is released only after
+ * the transaction holding its row has committed.
+ *
+ * <p>Every write takes the enrollment's row lock (the version bump) before inserting progress.
+ * Inserting first would take a shared lock on the enrollment through the foreign key, and two
+ * completions upgrading it to the bump's exclusive lock deadlock each other.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "enrollment.progress.store", havingValue = "rows", matchIfMissing = true)
+public class ProgressWriter implements ProgressStore {
+
+    private final ProgressRepository progressRepo;
+    private final EnrollmentRepository enrollmentRepo;
+    private final TransactionTemplate txTemplate;
+    private final ApplicationEventPublisher events;
+
+    private final boolean groupCommit;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final Duration awaitTimeout;
+    private final BlockingQueue<PendingCompletion> queue;
+
+    private volatile boolean running;
+    private Thread committer;
+
+    public ProgressWriter(ProgressRepository progressRepo,
+                          EnrollmentRepository enrollmentRepo,
+                          TransactionTemplate txTemplate,
+                          ApplicationEventPublisher events,
+                          @Value("${enrollment.progress.group-commit.enabled:false}") boolean groupCommit,
+                          @Value("${enrollment.progress.group-commit.max-batch-size:200}") int maxBatchSize,
+                          @Value("${enrollment.progress.group-commit.max-wait:5ms}") Duration maxWait,
+                          @Value("${enrollment.progress.group-commit.queue-capacity:10000}") int queueCapacity,
+                          @Value("${enrollment.progress.group-commit.await-timeout:5s}") Duration awaitTimeout) {
+        this.progressRepo = progressRepo;
+        this.enrollmentRepo = enrollmentRepo;
+        this.txTemplate = txTemplate;
+        this.events = events;
+        this.groupCommit = groupCommit;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.awaitTimeout = awaitTimeout;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!groupCommit) {
+            return;
+        }
+        running = true;
+        committer = new Thread(this::runCommitter, "progress-group-commit");
+        committer.setDaemon(true);
+        committer.start();
+        log.info("Progress group commit enabled - maxBatchSize: {}, maxWait: {}us",
+                maxBatchSize, TimeUnit.NANOSECONDS.toMicros(maxWaitNanos));
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (committer == null) {
+            return;
+        }
+        running = false;
+        committer.interrupt();
+        committer.join(awaitTimeout.toMillis());
+    }
+
+    /**
+     * Records the lesson as completed and returns its row. Completing an already completed
+     * lesson returns the existing row.
+     */
+    @Override
+    public Progress complete(EnrollmentSnapshot enrollment, Long lessonId) {
+        Long enrollmentId = enrollment.getEnrollmentId();
+        LessonKey key = new LessonKey(enrollmentId, lessonId);
+        LocalDateTime completedAt = LocalDateTime.now();
+        if (!groupCommit) {
+            return insertOrGet(enrollment, key, completedAt);
+        }
+
+        PendingCompletion pending = new PendingCompletion(key, enrollment, completedAt, new CompletableFuture<>());
+        if (!queue.offer(pending)) {
+            log.warn("Progress group commit queue is full, rejecting lesson {} for enrollment {}",
+                    lessonId, enrollmentId);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Too many pending lesson completions, please retry");
+        }
+        try {
+            return pending.result().get(awaitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Timed out waiting for group commit of lesson {} for enrollment {}", lessonId, enrollmentId);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Lesson completion is taking longer than expected, please retry");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Request interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Completes many lessons in a single transaction. Lessons that are already completed are
+     * returned as-is; the rest are written as one JDBC batch.
+     */
+    @Override
+    public List<Progress> completeAll(EnrollmentSnapshot enrollment, Collection<Long> lessonIds) {
+        Long enrollmentId = enrollment.getEnrollmentId();
+        try {
+            return txTemplate.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                // Locked before the lookup, so no other writer can add one of these lessons meanwhile
+                enrollmentRepo.bumpVersion(List.of(enrollmentId), now);
+                Set<Long> pending = new LinkedHashSet<>(lessonIds);
+                List<Progress> result = new ArrayList<>(
+                        progressRepo.findByEnrollment_EnrollmentIdAndLessonIdIn(enrollmentId, pending));
+                result.forEach(existing -> pending.remove(existing.getLessonId()));
+                if (pending.isEmpty()) {
+                    // Nothing changed: undo the version bump
+                    status.setRollbackOnly();
+                    return result;
+                }
+
+                List<Progress> created = new ArrayList<>(pending.size());
+                for (Long lessonId : pending) {
+                    created.add(newProgress(new LessonKey(enrollmentId, lessonId), now));
+                }
+                result.addAll(progressRepo.saveAllAndFlush(created));
+                created.forEach(p -> publishCompleted(enrollment, new LessonKey(enrollmentId, p.getLessonId())));
+                log.info("Batch progress saved - enrollmentId: {}, created: {}, alreadyCompleted: {}",
+                        enrollmentId, created.size(), result.size() - created.size());
+                return result;
+            });
+        } catch (DataIntegrityViolationException ex) {
+            log.warn("Concurrent lesson completion detected for enrollment {}", enrollmentId);
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Some lessons were completed concurrently, please retry");
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> completedLessonIds(Long enrollmentId) {
+        return progressRepo.findCompletedLessonIds(enrollmentId);
+    }
+
+    @Override
+    public void fillProgress(List<Enrollment> enrollments) {
+        // progressList already holds the rows
+    }
+
+    /**
+     * Inserts first; the (enrollment_id, lesson_id) unique key turns a repeat into a lookup.
+     * The insert has its own transaction so the conflict never poisons a caller's transaction.
+     */
+    private Progress insertOrGet(EnrollmentSnapshot enrollment, LessonKey key, LocalDateTime completedAt) {
+        try {
+            Progress saved = txTemplate.execute(status -> {
+                enrollmentRepo.bumpVersion(List.of(key.enrollmentId()), completedAt);
+                Progress p = progressRepo.saveAndFlush(newProgress(key, completedAt));
+                publishCompleted(enrollment, key);
+                return p;
+            });
+            log.info("Progress saved: id={}", saved.getProgressId());
+            return saved;
+        } catch (DataIntegrityViolationException ex) {
+            log.info("Lesson {} already completed for enrollment {}", key.lessonId(), key.enrollmentId());
+            // Read-write transaction, so the lookup sees the conflicting row even with a lagging read replica
+            return txTemplate.execute(status ->
+                    progressRepo.findByEnrollment_EnrollmentIdAndLessonId(key.enrollmentId(), key.lessonId()))
+                    .orElseThrow(() -> ex);
+        }
+    }
+
+    private Progress newProgress(LessonKey key, LocalDateTime completedAt) {
+        Progress p = new Progress();
+        p.setEnrollment(enrollmentRepo.getReferenceById(key.enrollmentId()));
+        p.setLessonId(key.lessonId());
+        p.setCompleted(true);
+        p.setCompletedAt(completedAt);
+        return p;
+    }
+
+    private void publishCompleted(EnrollmentSnapshot enrollment, LessonKey key) {
+        // Runs inside the insert transaction, so the outbox row commits together with the progress row
+        events.publishEvent(EnrollmentEvent.lessonCompleted(
+                key.enrollmentId(), enrollment.getUserId(), enrollment.getCourseId(), key.lessonId()));
+    }
+
+    private void runCommitter() {
+        List<PendingCompletion> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingCompletion first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingCompletion next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // stop() was called: commit what was collected, the loop drains the rest
+                log.info("Progress group commit stopping, {} completions pending", batch.size() + queue.size());
+            }
+            if (!batch.isEmpty()) {
+                commit(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<PendingCompletion> batch) {
+        // The same lesson submitted twice inside one window shares a single row
+        Map<LessonKey, List<PendingCompletion>> byLesson = new LinkedHashMap<>();
+        for (PendingCompletion pending : batch) {
+            byLesson.computeIfAbsent(pending.key(), k -> new ArrayList<>()).add(pending);
+        }
+
+        try {
+            Map<LessonKey, Progress> saved = txTemplate.execute(status -> {
+                Set<Long> enrollmentIds = new TreeSet<>();
+                Set<Long> lessonIds = new LinkedHashSet<>();
+                byLesson.keySet().forEach(key -> {
+                    enrollmentIds.add(key.enrollmentId());
+                    lessonIds.add(key.lessonId());
+                });
+                // Sorted: one UPDATE locks the enrollments in index order, before any insert
+                enrollmentRepo.bumpVersion(enrollmentIds, LocalDateTime.now());
+
+                // Lessons completed earlier are answered with their row instead of failing the batch
+                Map<LessonKey, Progress> rows = new LinkedHashMap<>();
+                for (Progress existing : progressRepo.findByEnrollment_EnrollmentIdInAndLessonIdIn(enrollmentIds, lessonIds)) {
+                    LessonKey key = new LessonKey(existing.getEnrollment().getEnrollmentId(), existing.getLessonId());
+                    if (byLesson.containsKey(key)) {
+                        rows.put(key, existing);
+                    }
+                }
+                List<LessonKey> created = new ArrayList<>();
+                List<Progress> newRows = new ArrayList<>();
+                byLesson.forEach((key, waiters) -> {
+                    if (!rows.containsKey(key)) {
+                        created.add(key);
+                        newRows.add(newProgress(key, waiters.get(0).completedAt()));
+                    }
+                });
+                // saveAll keeps the input order
+                List<Progress> inserted = progressRepo.saveAllAndFlush(newRows);
+                for (int i = 0; i < created.size(); i++) {
+                    LessonKey key = created.get(i);
+                    rows.put(key, inserted.get(i));
+                    publishCompleted(byLesson.get(key).get(0).enrollment(), key);
+                }
+                return rows;
+            });
+            byLesson.forEach((key, waiters) -> waiters.forEach(waiter -> waiter.result().complete(saved.get(key))));
+            log.debug("Group commit of {} completions ({} rows)", batch.size(), saved.size());
+        } catch (DataIntegrityViolationException ex) {
+            // Not expected with the lock taken first; settle each lesson on its own
+            log.info("Group commit of {} rows hit an existing lesson, retrying one by one", byLesson.size());
+            byLesson.forEach((key, waiters) -> {
+                try {
+                    PendingCompletion first = waiters.get(0);
+                    Progress p = insertOrGet(first.enrollment(), key, first.completedAt());
+                    waiters.forEach(waiter -> waiter.result().complete(p));
+                } catch (RuntimeException e) {
+                    waiters.forEach(waiter -> waiter.result().completeExceptionally(e));
+                }
+            });
+        } catch (RuntimeException ex) {
+            log.error("Group commit of {} completions failed", batch.size(), ex);
+            batch.forEach(pending -> pending.result().completeExceptionally(ex));
+        }
+    }
+
+    private record LessonKey(Long enrollmentId, Long lessonId) {
+    }
+
+    private record PendingCompletion(LessonKey key, EnrollmentSnapshot enrollment, LocalDateTime completedAt,
+                                     CompletableFuture<Progress> result) {
+    }
+}
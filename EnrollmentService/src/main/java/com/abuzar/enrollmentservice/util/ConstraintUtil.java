@@ -0,0 +1,30 @@
+package com.abuzar.enrollmentservice.util;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+
+/**
+ * Tells which constraint a failed write violated, so a duplicate key can be told apart from
+ * other integrity errors (NOT NULL, foreign keys, ...).
+ */
+public final class ConstraintUtil {
+
+    private ConstraintUtil() {
+    }
+
+    /**
+     * True if {@code ex} was caused by the named constraint. Matched case-insensitively and as a
+     * substring: MySQL reports the key name as declared, H2 adds schema and index suffixes.
+     */
+    public static boolean violates(DataIntegrityViolationException ex, String constraintName) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof ConstraintViolationException cve) {
+                String name = cve.getConstraintName();
+                return name != null && name.toLowerCase(Locale.ROOT).contains(constraintName.toLowerCase(Locale.ROOT));
+            }
+        }
+        return false;
+    }
+}
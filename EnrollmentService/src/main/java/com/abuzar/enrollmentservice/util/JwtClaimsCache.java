@@ -0,0 +1,108 @@
+package com.abuzar.enrollmentservice.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of already verified JWT claims, keyed by a SHA-256 digest of the raw token.
+ * Each entry expires at the token's own {@code exp} claim (capped by {@code max-ttl}),
+ * so a cached token is never accepted after it would have been rejected by the parser.
+ * Hit/miss/eviction counts are published as {@code cache.*} metrics with {@code cache=jwt-claims}.
+ */
+@Slf4j
+@Component
+public class JwtClaimsCache implements MeterBinder {
+
+    private final Cache<String, Claims> cache;
+
+    public JwtClaimsCache(@Value("${enrollment.jwt.cache.max-size:10000}") long maxSize,
+                          @Value("${enrollment.jwt.cache.max-ttl:1h}") Duration maxTtl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ExpiresAtClaim(maxTtl))
+                .recordStats()
+                .build();
+        log.info("JWT claims cache initialised - maxSize: {}, maxTtl: {}", maxSize, maxTtl);
+    }
+
+    /**
+     * Returns the cached claims for the token, or runs {@code verifier} once and caches its result.
+     * Verification failures are propagated and never cached.
+     */
+    public Claims get(String token, Function<String, Claims> verifier) {
+        return cache.get(digest(token), key -> verifier.apply(token));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "jwt-claims");
+    }
+
+    public long hitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long missCount() {
+        return cache.stats().missCount();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is mandatory on every JVM
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class ExpiresAtClaim implements Expiry<String, Claims> {
+
+        private final long maxTtlNanos;
+
+        private ExpiresAtClaim(Duration maxTtl) {
+            this.maxTtlNanos = maxTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Date exp = claims.getExpiration();
+            if (exp == null) {
+                return maxTtlNanos;
+            }
+            long remaining = Duration.ofMillis(exp.getTime() - System.currentTimeMillis()).toNanos();
+            return Math.max(0, Math.min(remaining, maxTtlNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package com.abuzar.enrollmentservice.util;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -12,11 +15,24 @@ import java.nio.charset.StandardCharsets;
 
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class JwtUtil {
 
+    private final JwtClaimsCache claimsCache;
+
     @Value("${enrollment.jwt.secret}")
     private String jwtSecret;
 
+    // Built once; both the key and the parser are immutable and thread-safe
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(getSigningKey())
+                .build();
+    }
+
     private SecretKey getSigningKey() {
         // Convert string to bytes using UTF-8 encoding (matching Node.js behavior)
         byte[] keyBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
@@ -25,19 +41,22 @@ public class JwtUtil {
 
     public Claims extractAllClaims(String token) {
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            return claimsCache.get(token, this::parseClaims);
         } catch (Exception e) {
             log.error("Failed to parse JWT token: {}", e.getMessage());
             throw e;
         }
     }
 
+    private Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
     public String extractUserId(String token) {
-        Claims c = extractAllClaims(token);
+        return extractUserId(extractAllClaims(token));
+    }
+
+    public String extractUserId(Claims c) {
         // Node.js JWT stores userId in 'id' claim
         Object id = c.get("id");
         if (id == null) {
@@ -47,9 +66,12 @@ public class JwtUtil {
     }
 
     public String extractRole(String token) {
-        Claims c = extractAllClaims(token);
+        return extractRole(extractAllClaims(token));
+    }
+
+    public String extractRole(Claims c) {
         // Node.js JWT stores role in 'role' claim
         Object role = c.get("role");
         return role != null ? role.toString() : null;
     }
-}
\ No newline at end of file
+}
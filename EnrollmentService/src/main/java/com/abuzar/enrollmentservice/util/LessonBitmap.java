@@ -0,0 +1,151 @@
+package com.abuzar.enrollmentservice.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.BitSet;
+import java.util.stream.LongStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Set of completed lesson ids stored as a bitmap relative to the smallest id, so a course whose
+ * lessons are numbered 10 000..10 300 costs under 40 bytes instead of 301 rows.
+ *
+ * <p>Encoded form: {@code flags(1) base(8) rawLength(4) payload}, where the payload is
+ * {@link BitSet#toByteArray()} deflated when that is smaller. Not thread-safe.
+ */
+public final class LessonBitmap {
+
+    // Keeps one enrollment's bitmap under 2 MB even for badly spread ids
+    public static final int MAX_SPAN = 1 << 24;
+
+    private static final byte DEFLATED = 1;
+    private static final int HEADER = 1 + 8 + 4;
+
+    private long base;
+    private BitSet bits;
+
+    private LessonBitmap(long base, BitSet bits) {
+        this.base = base;
+        this.bits = bits;
+    }
+
+    public static LessonBitmap empty() {
+        return new LessonBitmap(0, new BitSet());
+    }
+
+    public static LessonBitmap decode(byte[] data) {
+        if (data == null || data.length == 0) {
+            return empty();
+        }
+        ByteBuffer buf = ByteBuffer.wrap(data);
+        byte flags = buf.get();
+        long base = buf.getLong();
+        int rawLength = buf.getInt();
+        byte[] payload = new byte[buf.remaining()];
+        buf.get(payload);
+        byte[] raw = (flags & DEFLATED) != 0 ? inflate(payload, rawLength) : payload;
+        return new LessonBitmap(base, BitSet.valueOf(raw));
+    }
+
+    public boolean contains(long lessonId) {
+        long offset = lessonId - base;
+        return offset >= 0 && offset < MAX_SPAN && bits.get((int) offset);
+    }
+
+    /**
+     * Adds the lesson and returns {@code true} if it was not in the set yet.
+     *
+     * @throws IllegalArgumentException if the id is negative or too far from the other ids
+     */
+    public boolean add(long lessonId) {
+        if (lessonId < 0) {
+            throw new IllegalArgumentException("Lesson id must not be negative: " + lessonId);
+        }
+        if (bits.isEmpty()) {
+            base = lessonId;
+        } else if (lessonId < base) {
+            rebase(lessonId);
+        }
+        long offset = lessonId - base;
+        if (offset >= MAX_SPAN) {
+            throw new IllegalArgumentException("Lesson id " + lessonId + " is too far from lesson " + base);
+        }
+        if (bits.get((int) offset)) {
+            return false;
+        }
+        bits.set((int) offset);
+        return true;
+    }
+
+    public int cardinality() {
+        return bits.cardinality();
+    }
+
+    public LongStream lessonIds() {
+        long b = base;
+        return bits.stream().mapToLong(offset -> b + offset);
+    }
+
+    public byte[] encode() {
+        byte[] raw = bits.toByteArray();
+        byte[] deflated = deflate(raw);
+        boolean useDeflated = deflated.length < raw.length;
+        byte[] payload = useDeflated ? deflated : raw;
+        return ByteBuffer.allocate(HEADER + payload.length)
+                .put(useDeflated ? DEFLATED : 0)
+                .putLong(bits.isEmpty() ? 0 : base)
+                .putInt(raw.length)
+                .put(payload)
+                .array();
+    }
+
+    private void rebase(long newBase) {
+        long shift = base - newBase;
+        if (shift + bits.length() > MAX_SPAN) {
+            throw new IllegalArgumentException("Lesson id " + newBase + " is too far from lesson " + base);
+        }
+        BitSet shifted = new BitSet(bits.length() + (int) shift);
+        bits.stream().forEach(offset -> shifted.set(offset + (int) shift));
+        bits = shifted;
+        base = newBase;
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 4 + 16);
+            byte[] chunk = new byte[512];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] payload, int rawLength) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(payload);
+            byte[] raw = new byte[rawLength];
+            int n = 0;
+            while (n < rawLength && !inflater.finished()) {
+                int read = inflater.inflate(raw, n, rawLength - n);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("Truncated lesson bitmap");
+                }
+                n += read;
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt lesson bitmap", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
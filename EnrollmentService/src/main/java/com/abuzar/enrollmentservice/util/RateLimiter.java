@@ -0,0 +1,121 @@
+package com.abuzar.enrollmentservice.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets per user and endpoint group. Each bucket is a single {@link AtomicLong}
+ * updated by CAS (the GCRA form of a token bucket), and buckets live in a Caffeine map that
+ * drops them after {@code idle-eviction} without use, so neither lookups nor updates lock.
+ */
+@Slf4j
+@Component
+public class RateLimiter implements MeterBinder {
+
+    public enum Group {
+        LESSONS, LISTING, CERTIFICATE, DEFAULT;
+
+        public static Group of(String method, String uri) {
+            if ("POST".equals(method) && uri.contains("/lessons/")) {
+                return LESSONS;
+            }
+            if ("GET".equals(method) && uri.startsWith("/api/enrollments/me")) {
+                return LISTING;
+            }
+            if ("POST".equals(method) && uri.endsWith("/certificate")) {
+                return CERTIFICATE;
+            }
+            return DEFAULT;
+        }
+    }
+
+    private final Cache<BucketKey, Bucket> buckets;
+    private final Map<Group, Limit> limits = new EnumMap<>(Group.class);
+
+    public RateLimiter(@Value("${enrollment.rate-limit.idle-eviction:10m}") Duration idleEviction,
+                       @Value("${enrollment.rate-limit.max-buckets:200000}") long maxBuckets,
+                       @Value("${enrollment.rate-limit.lessons.capacity:30}") int lessonsCapacity,
+                       @Value("${enrollment.rate-limit.lessons.per-second:10}") double lessonsRate,
+                       @Value("${enrollment.rate-limit.listing.capacity:20}") int listingCapacity,
+                       @Value("${enrollment.rate-limit.listing.per-second:5}") double listingRate,
+                       @Value("${enrollment.rate-limit.certificate.capacity:5}") int certificateCapacity,
+                       @Value("${enrollment.rate-limit.certificate.per-second:0.2}") double certificateRate,
+                       @Value("${enrollment.rate-limit.default.capacity:60}") int defaultCapacity,
+                       @Value("${enrollment.rate-limit.default.per-second:20}") double defaultRate) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(idleEviction)
+                .recordStats()
+                .build();
+        limits.put(Group.LESSONS, new Limit(lessonsCapacity, lessonsRate));
+        limits.put(Group.LISTING, new Limit(listingCapacity, listingRate));
+        limits.put(Group.CERTIFICATE, new Limit(certificateCapacity, certificateRate));
+        limits.put(Group.DEFAULT, new Limit(defaultCapacity, defaultRate));
+        log.info("Rate limits per user: {}", limits);
+    }
+
+    /**
+     * Takes a token for the user in this group. Returns 0 if the request may proceed, otherwise
+     * the nanoseconds until the next token is available.
+     */
+    public long tryAcquire(String userId, Group group) {
+        return tryAcquire(userId, group, System.nanoTime());
+    }
+
+    long tryAcquire(String userId, Group group, long now) {
+        Limit limit = limits.get(group);
+        Bucket bucket = buckets.get(new BucketKey(userId, group), key -> new Bucket());
+        return bucket.tryAcquire(now, limit);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, buckets, "rate-limit-buckets");
+    }
+
+    private record BucketKey(String userId, Group group) {
+    }
+
+    private record Limit(int capacity, long intervalNanos, long burstNanos) {
+
+        Limit(int capacity, double perSecond) {
+            this(capacity, (long) (1_000_000_000L / perSecond), (long) (1_000_000_000L / perSecond) * capacity);
+        }
+
+        @Override
+        public String toString() {
+            return capacity + " burst, " + String.format("%.2f", 1e9 / intervalNanos) + "/s";
+        }
+    }
+
+    private static final class Bucket {
+
+        // Theoretical arrival time of the next request; the bucket is full when it lies in the past
+        private final AtomicLong tat = new AtomicLong(Long.MIN_VALUE);
+
+        long tryAcquire(long now, Limit limit) {
+            while (true) {
+                long current = tat.get();
+                long next = Math.max(current, now) + limit.intervalNanos();
+                long allowedAt = next - limit.burstNanos();
+                if (allowedAt > now) {
+                    return allowedAt - now;
+                }
+                if (tat.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.abuzar.enrollmentservice.util;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * Role lookups on the authorities set by {@code JwtAuthFilter} ({@code ROLE_<NAME>}).
+ */
+public final class RoleUtil {
+
+    private RoleUtil() {
+    }
+
+    public static boolean hasRole(Authentication auth, String role) {
+        return auth.getAuthorities()
+                .stream()
+                .map(GrantedAuthority::getAuthority)
+                .anyMatch(a -> a.equals("ROLE_" + role));
+    }
+
+    public static String getRole(Authentication auth) {
+        return auth.getAuthorities()
+                .stream()
+                .filter(a -> a.getAuthority().startsWith("ROLE_"))
+                .findFirst()
+                .map(GrantedAuthority::getAuthority)
+                .map(s -> s.replace("ROLE_", ""))
+                .orElse("USER");
+    }
+}
@@ -0,0 +1,11 @@
+-- Local stand-in for a read replica (application-replica.yml), run by H2 whenever the replica
+-- pool opens a connection. The replica is its own in-memory database whose tables are read-only
+-- links to the primary's: reads see the primary's data, and a write routed here fails instead of
+-- quietly succeeding.
+
+CREATE LINKED TABLE IF NOT EXISTS enrollments('', 'jdbc:h2:mem:enrollmentdb', 'sa', '', 'enrollments') READONLY;
+CREATE LINKED TABLE IF NOT EXISTS progress('', 'jdbc:h2:mem:enrollmentdb', 'sa', '', 'progress') READONLY;
+CREATE LINKED TABLE IF NOT EXISTS progress_bitmaps('', 'jdbc:h2:mem:enrollmentdb', 'sa', '', 'progress_bitmaps') READONLY;
+CREATE LINKED TABLE IF NOT EXISTS certificates('', 'jdbc:h2:mem:enrollmentdb', 'sa', '', 'certificates') READONLY;
+CREATE LINKED TABLE IF NOT EXISTS course_stats('', 'jdbc:h2:mem:enrollmentdb', 'sa', '', 'course_stats') READONLY;
+CREATE LINKED TABLE IF NOT EXISTS outbox_events('', 'jdbc:h2:mem:enrollmentdb', 'sa', '', 'outbox_events') READONLY;
@@ -0,0 +1,29 @@
+package com.abuzar.enrollmentservice;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+
+/** Bearer tokens signed with the default {@code enrollment.jwt.secret}, as UserService signs them. */
+public final class TestTokens {
+
+    public static final String SECRET = "JWT_SECRETJWT_SECRETJWT_SECRETJWT_SECRETJWT_SECRET";
+
+    private TestTokens() {
+    }
+
+    public static String bearer(String userId, String role) {
+        long now = System.currentTimeMillis();
+        return "Bearer " + Jwts.builder()
+                .claim("id", userId)
+                .claim("role", role)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + Duration.ofHours(1).toMillis()))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
@@ -0,0 +1,100 @@
+package com.abuzar.enrollmentservice.client;
+
+import com.abuzar.enrollmentservice.client.CircuitBreaker.Permit;
+import com.abuzar.enrollmentservice.client.CircuitBreaker.State;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    private static final Duration OPEN = Duration.ofSeconds(30);
+
+    private final AtomicLong clock = new AtomicLong();
+    private final CircuitBreaker breaker = new CircuitBreaker(3, OPEN, clock::get);
+
+    @Test
+    void opensAfterConsecutiveFailuresOnly() {
+        failCalls(2);
+        breaker.onSuccess(breaker.tryAcquire());
+        failCalls(2);
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+
+        failCalls(1);
+
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+        assertThat(breaker.tryAcquire()).isEqualTo(Permit.DENIED);
+        assertThat(breaker.remainingOpen()).isEqualTo(OPEN);
+    }
+
+    @Test
+    void letsOneTrialThroughAfterTheOpenPeriod() {
+        open();
+        clock.addAndGet(OPEN.toNanos());
+
+        assertThat(breaker.state()).isEqualTo(State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isEqualTo(Permit.TRIAL);
+        assertThat(breaker.tryAcquire()).isEqualTo(Permit.DENIED);
+    }
+
+    @Test
+    void successfulTrialCloses() {
+        open();
+        clock.addAndGet(OPEN.toNanos());
+
+        breaker.onSuccess(breaker.tryAcquire());
+
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+        assertThat(breaker.tryAcquire()).isEqualTo(Permit.CALL);
+    }
+
+    @Test
+    void failedTrialOpensForAnotherPeriod() {
+        open();
+        clock.addAndGet(OPEN.toNanos());
+
+        breaker.onFailure(breaker.tryAcquire());
+
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+        assertThat(breaker.remainingOpen()).isEqualTo(OPEN);
+        clock.addAndGet(OPEN.toNanos());
+        assertThat(breaker.tryAcquire()).isEqualTo(Permit.TRIAL);
+    }
+
+    @Test
+    void callsStartedBeforeOpeningDoNotDecide() {
+        Permit slowCall = breaker.tryAcquire();
+        Permit otherSlowCall = breaker.tryAcquire();
+        open();
+
+        breaker.onSuccess(slowCall);
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+
+        clock.addAndGet(OPEN.toNanos() / 2);
+        breaker.onFailure(otherSlowCall);
+        assertThat(breaker.remainingOpen()).isEqualTo(OPEN.dividedBy(2));
+
+        clock.addAndGet(OPEN.toNanos() / 2);
+        Permit trial = breaker.tryAcquire();
+        breaker.onSuccess(slowCall);
+        assertThat(breaker.state()).isEqualTo(State.HALF_OPEN);
+        breaker.onSuccess(trial);
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+    }
+
+    private void open() {
+        failCalls(3);
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+    }
+
+    private void failCalls(int calls) {
+        for (int i = 0; i < calls; i++) {
+            Permit permit = breaker.tryAcquire();
+            assertThat(permit).isEqualTo(Permit.CALL);
+            breaker.onFailure(permit);
+        }
+    }
+}
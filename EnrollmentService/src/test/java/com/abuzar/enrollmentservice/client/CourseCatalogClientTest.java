@@ -0,0 +1,180 @@
+package com.abuzar.enrollmentservice.client;
+
+import com.abuzar.enrollmentservice.TestTokens;
+import com.abuzar.enrollmentservice.exception.RetryLaterException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CourseCatalogClientTest {
+
+    private static final Duration OPEN_DURATION = Duration.ofMillis(500);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private StubCourseServer courseServer;
+
+    @BeforeEach
+    void startCourseServer() throws Exception {
+        courseServer = new StubCourseServer(10, 0);
+    }
+
+    @AfterEach
+    void stopCourseServer() {
+        courseServer.close();
+    }
+
+    @Test
+    void missingCourseIsCachedForTheNegativeTtl() throws Exception {
+        CourseCatalogClient client = client(true, Duration.ofSeconds(2), Duration.ofMillis(300));
+
+        assertNotFound(client, 999L);
+        assertNotFound(client, 999L);
+        client.requireCourse(1L);
+        client.requireCourse(1L);
+        assertThat(courseServer.requestCount()).isEqualTo(2);
+
+        TimeUnit.MILLISECONDS.sleep(500);
+
+        assertNotFound(client, 999L);
+        client.requireCourse(1L);
+        assertThat(courseServer.requestCount()).isEqualTo(3);
+    }
+
+    @Test
+    void concurrentLookupsShareOneCall() throws Exception {
+        courseServer.setLatencyMillis(300);
+        CourseCatalogClient client = client(false, Duration.ofSeconds(2), Duration.ofSeconds(30));
+        int callers = 16;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<?>> lookups = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                lookups.add(pool.submit(() -> {
+                    start.await();
+                    client.requireCourse(5L);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> lookup : lookups) {
+                lookup.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(courseServer.requestCount()).isEqualTo(1);
+        assertThat(lookups("found")).isEqualTo(callers);
+    }
+
+    @Test
+    void slowCatalogIsSkippedWithinTheTimeoutWhenFailingOpen() {
+        courseServer.setLatencyMillis(2000);
+        CourseCatalogClient client = client(true, Duration.ofMillis(100), Duration.ofSeconds(30));
+
+        long started = System.nanoTime();
+        client.requireCourse(1L);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(1));
+        assertThat(lookups("unavailable")).isEqualTo(1);
+    }
+
+    @Test
+    void slowCatalogIsRejectedWithinTheTimeoutWhenFailingClosed() {
+        courseServer.setLatencyMillis(2000);
+        CourseCatalogClient client = client(false, Duration.ofMillis(100), Duration.ofSeconds(30));
+
+        long started = System.nanoTime();
+        assertUnavailable(client, 1L);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(1));
+        assertThat(lookups("unavailable")).isEqualTo(1);
+    }
+
+    @Test
+    void repeatedFailuresOpenTheBreakerAndASuccessfulTrialClosesIt() throws Exception {
+        CourseCatalogClient client = client(false, Duration.ofSeconds(2), Duration.ofSeconds(30));
+        courseServer.failWith(503);
+
+        assertUnavailable(client, 1L);
+        assertUnavailable(client, 2L);
+        assertThat(courseServer.requestCount()).isEqualTo(2);
+        assertThat(breakerOpen()).isEqualTo(1);
+
+        // Open: rejected without calling CourseService, with the remaining open time as hint
+        RetryLaterException rejected = assertUnavailable(client, 3L);
+        assertThat(courseServer.requestCount()).isEqualTo(2);
+        assertThat(rejected.getRetryAfter()).isPositive().isLessThanOrEqualTo(OPEN_DURATION);
+
+        courseServer.recover();
+        TimeUnit.MILLISECONDS.sleep(OPEN_DURATION.toMillis() + 100);
+
+        client.requireCourse(4L);
+        assertThat(courseServer.requestCount()).isEqualTo(3);
+        assertThat(breakerOpen()).isZero();
+        client.requireCourse(5L);
+        assertThat(courseServer.requestCount()).isEqualTo(4);
+    }
+
+    @Test
+    void failedTrialKeepsTheBreakerOpen() throws Exception {
+        CourseCatalogClient client = client(false, Duration.ofSeconds(2), Duration.ofSeconds(30));
+        courseServer.failWith(500);
+        assertUnavailable(client, 1L);
+        assertUnavailable(client, 2L);
+
+        TimeUnit.MILLISECONDS.sleep(OPEN_DURATION.toMillis() + 100);
+
+        assertUnavailable(client, 3L);
+        assertThat(courseServer.requestCount()).isEqualTo(3);
+        assertUnavailable(client, 4L);
+        assertThat(courseServer.requestCount()).isEqualTo(3);
+        assertThat(breakerOpen()).isEqualTo(1);
+    }
+
+    private CourseCatalogClient client(boolean failOpen, Duration timeout, Duration negativeTtl) {
+        return new CourseCatalogClient(true, failOpen, courseServer.baseUrl(), timeout, Duration.ofMillis(200),
+                1000, Duration.ofMinutes(10), negativeTtl, 2, OPEN_DURATION, TestTokens.SECRET, meterRegistry);
+    }
+
+    private static void assertNotFound(CourseCatalogClient client, Long courseId) {
+        assertThatThrownBy(() -> client.requireCourse(courseId))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND));
+    }
+
+    private static RetryLaterException assertUnavailable(CourseCatalogClient client, Long courseId) {
+        try {
+            client.requireCourse(courseId);
+        } catch (RetryLaterException ex) {
+            assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+            return ex;
+        }
+        throw new AssertionError("Expected course " + courseId + " to be rejected with 503");
+    }
+
+    private double lookups(String outcome) {
+        return meterRegistry.get("enrollment.courses.lookups").tag("outcome", outcome).counter().count();
+    }
+
+    private double breakerOpen() {
+        return meterRegistry.get("enrollment.courses.circuit.open").gauge().value();
+    }
+}
@@ -0,0 +1,96 @@
+package com.abuzar.enrollmentservice.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for CourseService: {@code GET /courses/{id}} answers 200 for ids
+ * {@code 1..courses} and 404 otherwise, after an optional latency. Latency can be changed and
+ * an outage simulated ({@link #failWith}) while running. Used by the catalog client tests and
+ * the load test, so course validation (cache, merged lookups, breaker) runs without the
+ * Python service.
+ */
+public final class StubCourseServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final int courses;
+    private final AtomicLong requests = new AtomicLong();
+
+    private volatile long latencyMillis;
+    private volatile int failureStatus;
+
+    public StubCourseServer(int courses, long latencyMillis) throws IOException {
+        this.courses = courses;
+        this.latencyMillis = latencyMillis;
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/courses/", this::handle);
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public long requestCount() {
+        return requests.get();
+    }
+
+    public void setLatencyMillis(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    /** Answers every request with {@code status} until {@link #recover()} is called. */
+    public void failWith(int status) {
+        this.failureStatus = status;
+    }
+
+    public void recover() {
+        this.failureStatus = 0;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try (exchange) {
+            long latency = latencyMillis;
+            if (latency > 0) {
+                TimeUnit.MILLISECONDS.sleep(latency);
+            }
+            int failure = failureStatus;
+            if (failure != 0) {
+                exchange.sendResponseHeaders(failure, -1);
+                return;
+            }
+            long id;
+            try {
+                id = Long.parseLong(exchange.getRequestURI().getPath().substring("/courses/".length()));
+            } catch (NumberFormatException e) {
+                id = -1;
+            }
+            boolean exists = id >= 1 && id <= courses;
+            byte[] body = (exists
+                    ? "{\"id\":" + id + ",\"title\":\"Course " + id + "\",\"price\":0,\"instructor_id\":\"stub\",\"lessons\":[]}"
+                    : "{\"detail\":\"Course not found\"}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(exists ? 200 : 404, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
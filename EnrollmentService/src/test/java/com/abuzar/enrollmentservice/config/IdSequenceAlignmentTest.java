@@ -0,0 +1,63 @@
+package com.abuzar.enrollmentservice.config;
+
+import com.abuzar.enrollmentservice.config.IdSequenceAlignment.IdSequence;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdSequenceAlignmentTest {
+
+    private static final IdSequence ENROLLMENTS = new IdSequence("enrollments_seq", "enrollments", "enrollment_id");
+
+    private JdbcTemplate jdbc;
+    private IdSequenceAlignment alignment;
+
+    @BeforeEach
+    void createSchema() {
+        jdbc = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"));
+        alignment = new IdSequenceAlignment(jdbc);
+        jdbc.execute("CREATE TABLE enrollments (enrollment_id BIGINT PRIMARY KEY)");
+    }
+
+    @Test
+    void raisesTableSequenceAboveExistingIdsOnce() {
+        // As ddl-auto leaves a database upgraded from AUTO_INCREMENT ids
+        jdbc.execute("CREATE TABLE enrollments_seq (next_val BIGINT)");
+        jdbc.update("INSERT INTO enrollments_seq VALUES (1)");
+        jdbc.update("INSERT INTO enrollments VALUES (7), (1234)");
+
+        assertThat(alignment.align(ENROLLMENTS)).isTrue();
+        assertThat(nextVal()).isEqualTo(1234 + 51);
+
+        assertThat(alignment.align(ENROLLMENTS)).isFalse();
+        assertThat(nextVal()).isEqualTo(1234 + 51);
+    }
+
+    @Test
+    void neverLowersASequenceThatIsAhead() {
+        jdbc.execute("CREATE TABLE enrollments_seq (next_val BIGINT)");
+        jdbc.update("INSERT INTO enrollments_seq VALUES (5001)");
+        jdbc.update("INSERT INTO enrollments VALUES (4950)");
+
+        assertThat(alignment.align(ENROLLMENTS)).isFalse();
+        assertThat(nextVal()).isEqualTo(5001);
+    }
+
+    @Test
+    void leavesNativeSequencesAlone() {
+        jdbc.execute("CREATE SEQUENCE enrollments_seq START WITH 1 INCREMENT BY 50");
+        jdbc.update("INSERT INTO enrollments VALUES (1234)");
+
+        assertThat(alignment.align(ENROLLMENTS)).isFalse();
+    }
+
+    private long nextVal() {
+        return jdbc.queryForObject("SELECT next_val FROM enrollments_seq", Long.class);
+    }
+}
@@ -0,0 +1,94 @@
+package com.abuzar.enrollmentservice.config;
+
+import com.abuzar.enrollmentservice.TestTokens;
+import com.abuzar.enrollmentservice.models.Enrollment;
+import com.abuzar.enrollmentservice.service.EnrollmentService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Read/write split against the local replica profile, where the replica is a separate database
+ * that rejects writes.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        // No read-your-writes stickiness, so the ownership lookup goes to the replica
+        "enrollment.datasource.replica.read-your-writes-window=0s",
+        "enrollment.warmup.enabled=false",
+        "enrollment.rate-limit.enabled=false"
+})
+@ActiveProfiles({"local", "replica"})
+class ReplicaRoutingTest {
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private EnrollmentService service;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primary;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replica;
+
+    @Test
+    void writeAfterReplicaReadInSameRequestLandsOnPrimary() throws Exception {
+        Enrollment enrollment = service.enroll("replica-user", 11L);
+        double replicaReads = routed("replica");
+
+        // Ownership lookup (read-only, cache miss) first, then the progress insert
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port
+                        + "/api/enrollments/" + enrollment.getEnrollmentId() + "/lessons/5/complete"))
+                .header("Authorization", TestTokens.bearer("replica-user", "user"))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .timeout(Duration.ofSeconds(10))
+                .build(), HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(routed("replica")).isGreaterThan(replicaReads);
+        Integer rows = new JdbcTemplate(primary).queryForObject(
+                "select count(*) from progress where enrollment_id = ? and lesson_id = 5",
+                Integer.class, enrollment.getEnrollmentId());
+        assertThat(rows).isEqualTo(1);
+    }
+
+    @Test
+    void replicaSeesPrimaryDataButRejectsWrites() {
+        Enrollment enrollment = service.enroll("replica-reader", 12L);
+        JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+
+        assertThat(replicaJdbc.queryForObject("select user_id from enrollments where enrollment_id = ?",
+                String.class, enrollment.getEnrollmentId())).isEqualTo("replica-reader");
+        assertThatThrownBy(() -> replicaJdbc.update("update enrollments set course_id = 13 where enrollment_id = ?",
+                enrollment.getEnrollmentId())).isNotNull();
+    }
+
+    private double routed(String target) {
+        return meterRegistry.counter("enrollment.datasource.connections", "target", target).count();
+    }
+}
@@ -0,0 +1,80 @@
+package com.abuzar.enrollmentservice.controller;
+
+import com.abuzar.enrollmentservice.TestTokens;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "enrollment.cohort.chunk-size=2",
+        "enrollment.cohort.max-users=5",
+        "enrollment.warmup.enabled=false",
+        "enrollment.rate-limit.enabled=false"
+})
+@ActiveProfiles("local")
+class CohortEnrollmentControllerTest {
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void fileImportSkipsHeaderCommentsAndDuplicates() throws Exception {
+        HttpResponse<String> response = upload(301L, """
+                user_id,name
+                "c1",Ada
+                c2
+
+                # imported from the spring term
+                c1
+                c3,Grace
+                """);
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        JsonNode result = objectMapper.readTree(response.body());
+        assertThat(result.path("received").asInt()).isEqualTo(4);
+        assertThat(result.path("unique").asInt()).isEqualTo(3);
+        assertThat(result.path("enrolled").asInt()).isEqualTo(3);
+        assertThat(result.path("chunks")).hasSize(2);
+    }
+
+    @Test
+    void fileWithMoreThanMaxUsersIsRejected() throws Exception {
+        StringBuilder file = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            file.append("big-").append(i).append('\n');
+        }
+
+        HttpResponse<String> response = upload(302L, file.toString());
+
+        assertThat(response.statusCode()).isEqualTo(413);
+    }
+
+    private HttpResponse<String> upload(Long courseId, String body) throws Exception {
+        return http.send(HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/api/enrollments/admin/cohorts/" + courseId))
+                .header("Authorization", TestTokens.bearer("cohort-admin", "ADMIN"))
+                .header("Content-Type", "text/csv")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .timeout(Duration.ofSeconds(30))
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
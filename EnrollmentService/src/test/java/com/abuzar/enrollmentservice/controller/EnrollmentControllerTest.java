@@ -0,0 +1,154 @@
+package com.abuzar.enrollmentservice.controller;
+
+import com.abuzar.enrollmentservice.TestTokens;
+import com.abuzar.enrollmentservice.models.Enrollment;
+import com.abuzar.enrollmentservice.service.EnrollmentService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs against the embedded database with a two-connection pool and without open-in-view, so
+ * anything that holds a connection past its transaction, or touches a lazy association outside
+ * one, fails here.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.connection-timeout=2000",
+        // Keep scheduled jobs from borrowing a connection while the pool is inspected
+        "enrollment.outbox.poll-interval-ms=3600000",
+        "enrollment.analytics.flush-interval-ms=3600000",
+        "enrollment.events.cluster.poll-interval-ms=3600000",
+        "enrollment.warmup.enabled=false",
+        "enrollment.rate-limit.enabled=false"
+})
+@ActiveProfiles("local")
+class EnrollmentControllerTest {
+
+    private static final int STREAMS = 6;
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private EnrollmentService service;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void enrollmentIsSerializedWithItsProgress() throws Exception {
+        Enrollment enrollment = service.enroll("progress-user", 7L);
+        service.markLessonComplete(enrollment.getEnrollmentId(), 3L, "progress-user", "user");
+
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/api/enrollments/" + enrollment.getEnrollmentId()))
+                .header("Authorization", TestTokens.bearer("progress-user", "user"))
+                .timeout(Duration.ofSeconds(10))
+                .build(), HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        JsonNode progress = objectMapper.readTree(response.body()).path("progressList");
+        assertThat(progress).hasSize(1);
+        assertThat(progress.get(0).path("lessonId").asLong()).isEqualTo(3L);
+    }
+
+    @Test
+    void listingIsGzippedAndRevalidatedWithWeakETag() throws Exception {
+        for (long courseId = 100; courseId < 140; courseId++) {
+            service.enroll("gzip-user", courseId);
+        }
+        String token = TestTokens.bearer("gzip-user", "user");
+        URI me = URI.create("http://localhost:" + port + "/api/enrollments/me");
+
+        HttpResponse<byte[]> full = http.send(HttpRequest.newBuilder(me)
+                .header("Authorization", token)
+                .header("Accept-Encoding", "gzip")
+                .timeout(Duration.ofSeconds(10))
+                .build(), HttpResponse.BodyHandlers.ofByteArray());
+        assertThat(full.statusCode()).isEqualTo(200);
+        String eTag = full.headers().firstValue("ETag").orElseThrow();
+        assertThat(eTag).startsWith("W/\"");
+        assertThat(full.headers().firstValue("Content-Encoding")).hasValue("gzip");
+
+        HttpResponse<byte[]> revalidated = http.send(HttpRequest.newBuilder(me)
+                .header("Authorization", token)
+                .header("Accept-Encoding", "gzip")
+                .header("If-None-Match", eTag)
+                .timeout(Duration.ofSeconds(10))
+                .build(), HttpResponse.BodyHandlers.ofByteArray());
+        assertThat(revalidated.statusCode()).isEqualTo(304);
+    }
+
+    /** More open streams than pooled connections: ordinary requests must still get one. */
+    @Test
+    void openStreamsDoNotHoldConnections() throws Exception {
+        Enrollment enrollment = service.enroll("sse-user", 42L);
+        String token = TestTokens.bearer("sse-user", "user");
+        String base = "http://localhost:" + port + "/api/enrollments/" + enrollment.getEnrollmentId();
+
+        List<Stream<String>> streams = new ArrayList<>();
+        try {
+            for (int i = 0; i < STREAMS; i++) {
+                HttpResponse<Stream<String>> response = http.send(HttpRequest.newBuilder(URI.create(base + "/events"))
+                        .header("Authorization", token)
+                        .header("Accept", "text/event-stream")
+                        .timeout(Duration.ofSeconds(10))
+                        .build(), HttpResponse.BodyHandlers.ofLines());
+                assertThat(response.statusCode()).isEqualTo(200);
+                streams.add(response.body());
+                assertThat(firstEvent(response.body())).isEqualTo("event:snapshot");
+            }
+
+            assertThat(((HikariDataSource) dataSource).getHikariPoolMXBean().getActiveConnections()).isZero();
+
+            HttpResponse<String> completed = http.send(HttpRequest.newBuilder(URI.create(base + "/lessons/completed"))
+                    .header("Authorization", token)
+                    .timeout(Duration.ofSeconds(10))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertThat(completed.statusCode()).isEqualTo(200);
+        } finally {
+            streams.forEach(Stream::close);
+        }
+    }
+
+    private static String firstEvent(Stream<String> lines) throws Exception {
+        Iterator<String> it = lines.iterator();
+        return CompletableFuture.supplyAsync(() -> {
+            while (it.hasNext()) {
+                String line = it.next();
+                if (line.startsWith("event:")) {
+                    return line;
+                }
+            }
+            return null;
+        }).get(10, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,26 @@
+package com.abuzar.enrollmentservice.outbox;
+
+import com.abuzar.enrollmentservice.repository.OutboxEventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class OutboxRelayTest {
+
+    @Test
+    void refusesToStartWithoutSink() {
+        StaticListableBeanFactory noSinks = new StaticListableBeanFactory(Map.of());
+
+        assertThatThrownBy(() -> new OutboxRelay(mock(OutboxEventRepository.class),
+                noSinks.getBeanProvider(OutboxSink.class), mock(TransactionTemplate.class),
+                200, 50, Duration.ofDays(7)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("enrollment.outbox.sink");
+    }
+}
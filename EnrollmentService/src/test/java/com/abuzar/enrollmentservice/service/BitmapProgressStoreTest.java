@@ -0,0 +1,68 @@
+package com.abuzar.enrollmentservice.service;
+
+import com.abuzar.enrollmentservice.models.Enrollment;
+import com.abuzar.enrollmentservice.models.Progress;
+import com.abuzar.enrollmentservice.repository.ProgressRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "enrollment.progress.store=bitmap",
+        "enrollment.progress.bitmap.migrate-on-startup=false",
+        "enrollment.warmup.enabled=false"
+})
+@ActiveProfiles("local")
+class BitmapProgressStoreTest {
+
+    @Autowired
+    private EnrollmentService service;
+
+    @Autowired
+    private ProgressRepository progressRepo;
+
+    @Test
+    void listingsShowLessonsFromTheBitmap() {
+        Long id = service.enroll("bitmap-user", 1L).getEnrollmentId();
+        service.markLessonsComplete(id, List.of(3L, 1L), "bitmap-user", "user");
+
+        List<Progress> listed = service.getMyEnrollments("bitmap-user").get(0).getProgressList();
+        assertThat(listed).extracting(Progress::getLessonId).containsExactly(1L, 3L);
+        assertThat(listed).allMatch(Progress::isCompleted);
+        assertThat(listed).allMatch(p -> p.getProgressId() == null);
+        // Only the latest completion keeps its timestamp
+        assertThat(listed.get(0).getCompletedAt()).isNotNull();
+        assertThat(listed.get(1).getCompletedAt()).isNull();
+
+        assertThat(service.getEnrollmentWithProgress(id).getProgressList())
+                .extracting(Progress::getLessonId).containsExactly(1L, 3L);
+        assertThat(service.getMyEnrollmentPage("bitmap-user", null, 10).getItems().get(0).getProgressList())
+                .extracting(Progress::getLessonId).containsExactly(1L, 3L);
+    }
+
+    @Test
+    void enrollmentsWithoutBitmapKeepTheirRows() {
+        Enrollment enrollment = service.enroll("rows-user", 2L);
+        Progress row = new Progress();
+        row.setEnrollment(enrollment);
+        row.setLessonId(9L);
+        row.setCompleted(true);
+        row.setCompletedAt(LocalDateTime.now());
+        progressRepo.save(row);
+
+        List<Progress> listed = service.getMyEnrollments("rows-user").get(0).getProgressList();
+        assertThat(listed).extracting(Progress::getLessonId).containsExactly(9L);
+        assertThat(listed.get(0).getProgressId()).isNotNull();
+
+        // The first write folds the row into the bitmap
+        service.markLessonComplete(enrollment.getEnrollmentId(), 4L, "rows-user", "user");
+        assertThat(service.getMyEnrollments("rows-user").get(0).getProgressList())
+                .extracting(Progress::getLessonId).containsExactly(4L, 9L);
+    }
+}
@@ -0,0 +1,108 @@
+package com.abuzar.enrollmentservice.service;
+
+import com.abuzar.enrollmentservice.dto.CertificateJob;
+import com.abuzar.enrollmentservice.models.Certificate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "enrollment.warmup.enabled=false")
+@ActiveProfiles("local")
+class CertificateJobServiceTest {
+
+    @TempDir
+    static Path storageDir;
+
+    @DynamicPropertySource
+    static void storage(DynamicPropertyRegistry registry) {
+        registry.add("enrollment.certificates.storage-dir", storageDir::toString);
+    }
+
+    @Autowired
+    private CertificateJobService jobs;
+
+    @Autowired
+    private EnrollmentService service;
+
+    @Autowired
+    private CertificateRenderer renderer;
+
+    @Test
+    void jobStoresThePdf() throws Exception {
+        Long enrollmentId = service.enroll("job-user", 1L).getEnrollmentId();
+
+        CertificateJob job = jobs.submit(enrollmentId, "job-user", "user");
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (job.getStatus() != CertificateJob.Status.COMPLETED && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            job = jobs.getJob(enrollmentId, job.getJobId(), "job-user", "user");
+        }
+
+        assertThat(job.getStatus()).isEqualTo(CertificateJob.Status.COMPLETED);
+        assertThat(Files.isReadable(renderer.pathFor(enrollmentId))).isTrue();
+        try (var drafts = Files.list(storageDir)) {
+            assertThat(drafts.filter(p -> p.toString().endsWith(".tmp"))).isEmpty();
+        }
+    }
+
+    /** A poll that lands on an instance that never saw the job is answered from the certificate row. */
+    @Test
+    void unknownJobIsCompletedOnceTheCertificateIsIssued() {
+        Long enrollmentId = service.enroll("poll-user", 2L).getEnrollmentId();
+        String jobId = UUID.randomUUID().toString();
+
+        assertThatThrownBy(() -> jobs.getJob(enrollmentId, jobId, "poll-user", "user"))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND));
+
+        Certificate cert = service.issueCertificate(enrollmentId, "/certificate/" + enrollmentId);
+        CertificateJob job = jobs.getJob(enrollmentId, jobId, "poll-user", "user");
+
+        assertThat(job.getJobId()).isEqualTo(jobId);
+        assertThat(job.getStatus()).isEqualTo(CertificateJob.Status.COMPLETED);
+        assertThat(job.getCertificateId()).isEqualTo(cert.getCertificateId());
+        assertThat(job.getCertificateUrl()).isEqualTo(cert.getUrl());
+    }
+
+    @Test
+    void lateRenderDoesNotReplaceTheIssuedPdf() throws Exception {
+        Long enrollmentId = service.enroll("late-user", 3L).getEnrollmentId();
+        Path winner = renderer.render(enrollmentId, "late-user", 3L, LocalDateTime.now());
+        Certificate cert = service.issueCertificate(enrollmentId, "/certificate/" + enrollmentId,
+                () -> store(enrollmentId, winner));
+        byte[] stored = Files.readAllBytes(renderer.pathFor(enrollmentId));
+
+        Path late = renderer.render(enrollmentId, "someone-else", 3L, LocalDateTime.now());
+        Certificate again = service.issueCertificate(enrollmentId, "/elsewhere",
+                () -> store(enrollmentId, late));
+
+        assertThat(again.getCertificateId()).isEqualTo(cert.getCertificateId());
+        assertThat(again.getUrl()).isEqualTo(cert.getUrl());
+        assertThat(Files.readAllBytes(renderer.pathFor(enrollmentId))).isEqualTo(stored);
+        renderer.discard(late);
+    }
+
+    private void store(Long enrollmentId, Path draft) {
+        try {
+            renderer.store(enrollmentId, draft);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.abuzar.enrollmentservice.service;
+
+import com.abuzar.enrollmentservice.TestTokens;
+import com.abuzar.enrollmentservice.events.EnrollmentEvent;
+import com.abuzar.enrollmentservice.models.OutboxEvent;
+import com.abuzar.enrollmentservice.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        // Polled by the test only
+        "enrollment.events.cluster.poll-interval-ms=3600000",
+        "enrollment.warmup.enabled=false",
+        "enrollment.rate-limit.enabled=false"
+})
+@ActiveProfiles("local")
+class ClusterEnrollmentEventsTest {
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private EnrollmentService service;
+
+    @Autowired
+    private ClusterEnrollmentEvents clusterEvents;
+
+    @Autowired
+    private OutboxEventRepository outboxRepo;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void streamsGetEventsCommittedElsewhereOnce() throws Exception {
+        Long enrollmentId = service.enroll("cluster-user", 5L).getEnrollmentId();
+        HttpResponse<Stream<String>> response = http.send(HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/api/enrollments/" + enrollmentId + "/events"))
+                .header("Authorization", TestTokens.bearer("cluster-user", "user"))
+                .header("Accept", "text/event-stream")
+                .timeout(Duration.ofSeconds(10))
+                .build(), HttpResponse.BodyHandlers.ofLines());
+        try (Stream<String> lines = response.body()) {
+            Iterator<String> events = lines.iterator();
+            assertThat(nextEvent(events)).isEqualTo("snapshot");
+
+            // Committed here: pushed after commit, and not again by the poll
+            service.markLessonComplete(enrollmentId, 1L, "cluster-user", "user");
+            clusterEvents.poll();
+            assertThat(nextEvent(events)).isEqualTo("lesson-completed 1");
+
+            // Committed on another instance: pushed by the poll, once
+            writeForeignEvent(EnrollmentEvent.lessonCompleted(enrollmentId, "cluster-user", 5L, 2L));
+            clusterEvents.poll();
+            clusterEvents.poll();
+            writeForeignEvent(EnrollmentEvent.lessonCompleted(enrollmentId, "cluster-user", 5L, 3L));
+            clusterEvents.poll();
+
+            assertThat(nextEvent(events)).isEqualTo("lesson-completed 2");
+            assertThat(nextEvent(events)).isEqualTo("lesson-completed 3");
+        }
+    }
+
+    private void writeForeignEvent(EnrollmentEvent event) throws Exception {
+        OutboxEvent row = new OutboxEvent();
+        row.setEventType(event.getType().name());
+        row.setEnrollmentId(event.getEnrollmentId());
+        row.setPayload(objectMapper.writeValueAsString(event));
+        row.setCreatedAt(LocalDateTime.now());
+        row.setOrigin("another-instance");
+        outboxRepo.saveAndFlush(row);
+    }
+
+    /** Event name, plus the lesson id for lesson events. */
+    private String nextEvent(Iterator<String> lines) throws Exception {
+        return CompletableFuture.supplyAsync(() -> {
+            String name = null;
+            while (lines.hasNext()) {
+                String line = lines.next();
+                if (line.startsWith("event:")) {
+                    name = line.substring("event:".length());
+                } else if (line.startsWith("data:") && name != null) {
+                    if (!name.equals("lesson-completed")) {
+                        return name;
+                    }
+                    try {
+                        return name + " " + objectMapper.readTree(line.substring("data:".length())).path("lessonId").asLong();
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            }
+            return null;
+        }).get(10, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,117 @@
+package com.abuzar.enrollmentservice.service;
+
+import com.abuzar.enrollmentservice.dto.CourseAnalytics;
+import com.abuzar.enrollmentservice.events.EnrollmentEvent;
+import com.abuzar.enrollmentservice.models.CourseStats;
+import com.abuzar.enrollmentservice.models.Enrollment;
+import com.abuzar.enrollmentservice.repository.CourseStatsRepository;
+import com.abuzar.enrollmentservice.repository.EnrollmentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        // Flushed by the tests only
+        "enrollment.analytics.flush-interval-ms=3600000",
+        "enrollment.warmup.enabled=false"
+})
+@ActiveProfiles("local")
+class CourseStatsServiceTest {
+
+    @Autowired
+    private CourseStatsService courseStats;
+
+    @Autowired
+    private CourseStatsRepository statsRepo;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepo;
+
+    @Autowired
+    private TransactionTemplate txTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void unflushedDeltasCountAndFlushMovesThemToTheTable() {
+        long courseId = 9001;
+        courseStats.flush();
+        for (long enrollmentId = 1; enrollmentId <= 3; enrollmentId++) {
+            courseStats.on(EnrollmentEvent.enrolled(enrollmentId, "u" + enrollmentId, courseId));
+        }
+        courseStats.on(EnrollmentEvent.lessonCompleted(1L, "u1", courseId, 10L));
+        courseStats.on(EnrollmentEvent.lessonCompleted(2L, "u2", courseId, 10L));
+        courseStats.on(EnrollmentEvent.certificateIssued(1L, "u1", courseId, 5L));
+
+        assertCounts(courseStats.getAnalytics(courseId), 3, 1, 0, 2);
+        assertThat(pendingCourses()).isEqualTo(1);
+
+        courseStats.flush();
+
+        assertThat(pendingCourses()).isZero();
+        CourseStats stored = statsRepo.findById(courseId).orElseThrow();
+        assertThat(stored.getEnrollments()).isEqualTo(3);
+        assertThat(stored.getCompletions()).isEqualTo(1);
+        assertThat(stored.getLessonsCompleted()).isEqualTo(2);
+        assertCounts(courseStats.getAnalytics(courseId), 3, 1, 0, 2);
+    }
+
+    @Test
+    void rebuildRecountsWithoutCountingPendingDeltasTwice() {
+        long courseId = 9002;
+        Long completed = enrollmentService.enroll("stats-a", courseId).getEnrollmentId();
+        Long cancelled = enrollmentService.enroll("stats-b", courseId).getEnrollmentId();
+        enrollmentService.enroll("stats-c", courseId);
+        enrollmentService.issueCertificate(completed, "/certificate/" + completed);
+        txTemplate.executeWithoutResult(status ->
+                enrollmentRepo.updateStatus(cancelled, Enrollment.Status.CANCELLED, LocalDateTime.now()));
+
+        CourseAnalytics rebuilt = courseStats.rebuild(courseId);
+
+        assertCounts(rebuilt, 3, 1, 1, 0);
+        assertThat(rebuilt.getActiveLearners()).isEqualTo(1);
+        courseStats.flush();
+        assertCounts(courseStats.getAnalytics(courseId), 3, 1, 1, 0);
+    }
+
+    /** Another instance's flush after the rebuild: a batch older than the recount is already in it. */
+    @Test
+    void rebuildSkipsOlderBatchesButKeepsNewerOnes() {
+        long courseId = 9003;
+        enrollmentService.enroll("stats-d", courseId);
+        LocalDateTime beforeRebuild = LocalDateTime.now();
+        courseStats.rebuild(courseId);
+        LocalDateTime afterRebuild = LocalDateTime.now().plusNanos(1_000);
+
+        txTemplate.executeWithoutResult(status -> {
+            statsRepo.increment(courseId, 1, 0, 2, beforeRebuild, LocalDateTime.now());
+            statsRepo.increment(courseId, 1, 1, 3, afterRebuild, LocalDateTime.now());
+        });
+
+        assertCounts(courseStats.getAnalytics(courseId), 2, 1, 0, 3);
+    }
+
+    private double pendingCourses() {
+        return meterRegistry.get("enrollment.analytics.pending.courses").gauge().value();
+    }
+
+    private static void assertCounts(CourseAnalytics analytics, long enrollments, long completions,
+                                     long cancellations, long lessons) {
+        assertThat(analytics.getEnrollments()).isEqualTo(enrollments);
+        assertThat(analytics.getCompletions()).isEqualTo(completions);
+        assertThat(analytics.getCancellations()).isEqualTo(cancellations);
+        assertThat(analytics.getLessonsCompleted()).isEqualTo(lessons);
+        assertThat(analytics.getActiveLearners()).isEqualTo(enrollments - completions - cancellations);
+    }
+}
@@ -0,0 +1,61 @@
+package com.abuzar.enrollmentservice.service;
+
+import com.abuzar.enrollmentservice.dto.EnrollmentSnapshot;
+import com.abuzar.enrollmentservice.models.Enrollment;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EnrollmentCacheTest {
+
+    private static final Long ID = 1L;
+    private static final EnrollmentSnapshot IN_PROGRESS = snapshot(Enrollment.Status.IN_PROGRESS);
+    private static final EnrollmentSnapshot CANCELLED = snapshot(Enrollment.Status.CANCELLED);
+
+    private final EnrollmentCache cache = new EnrollmentCache(100, Duration.ofMinutes(10));
+    private final TransactionTemplate txTemplate = new TransactionTemplate(new DataSourceTransactionManager(
+            new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1")));
+
+    @Test
+    void servesCachedSnapshotUntilEvicted() {
+        cache.get(ID, id -> IN_PROGRESS);
+
+        assertThat(cache.get(ID, id -> CANCELLED)).isSameAs(IN_PROGRESS);
+        cache.evict(ID);
+        assertThat(cache.get(ID, id -> CANCELLED)).isSameAs(CANCELLED);
+    }
+
+    @Test
+    void entryCachedDuringTheTransactionIsDroppedAfterCommit() {
+        cache.get(ID, id -> IN_PROGRESS);
+
+        txTemplate.executeWithoutResult(status -> {
+            cache.evict(ID);
+            // A reader that does not see the uncommitted change caches the old row again
+            assertThat(cache.get(ID, id -> IN_PROGRESS)).isSameAs(IN_PROGRESS);
+        });
+
+        assertThat(cache.get(ID, id -> CANCELLED)).isSameAs(CANCELLED);
+    }
+
+    @Test
+    void entryIsAlsoDroppedAfterRollback() {
+        txTemplate.executeWithoutResult(status -> {
+            cache.evict(ID);
+            cache.get(ID, id -> CANCELLED);
+            status.setRollbackOnly();
+        });
+
+        assertThat(cache.get(ID, id -> IN_PROGRESS)).isSameAs(IN_PROGRESS);
+    }
+
+    private static EnrollmentSnapshot snapshot(Enrollment.Status status) {
+        return new EnrollmentSnapshot(ID, "cache-user", 1L, status);
+    }
+}
@@ -0,0 +1,75 @@
+package com.abuzar.enrollmentservice.service;
+
+import com.abuzar.enrollmentservice.models.Certificate;
+import com.abuzar.enrollmentservice.models.Enrollment;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "enrollment.warmup.enabled=false")
+@ActiveProfiles("local")
+class EnrollmentServiceTest {
+
+    @Autowired
+    private EnrollmentService service;
+
+    @Test
+    void secondEnrollmentInSameCourseIsConflict() {
+        service.enroll("twice-user", 1L);
+
+        assertThatThrownBy(() -> service.enroll("twice-user", 1L))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+    }
+
+    @Test
+    void concurrentIssuesShareOneCertificate() throws Exception {
+        Long enrollmentId = service.enroll("certificate-user", 2L).getEnrollmentId();
+        int workers = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<Certificate>> issued = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                issued.add(pool.submit(() -> {
+                    start.await();
+                    return service.issueCertificate(enrollmentId, "/certificate/" + enrollmentId);
+                }));
+            }
+            start.countDown();
+
+            Set<Long> ids = new HashSet<>();
+            for (Future<Certificate> f : issued) {
+                ids.add(f.get(30, TimeUnit.SECONDS).getCertificateId());
+            }
+            assertThat(ids).hasSize(1);
+            assertThat(service.findCertificate(enrollmentId).getCertificateId()).isEqualTo(ids.iterator().next());
+            assertThat(service.getEnrollment(enrollmentId).getStatus()).isEqualTo(Enrollment.Status.COMPLETED);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void otherIntegrityErrorsAreNotReportedAsDuplicates() {
+        assertThatThrownBy(() -> service.enroll(null, 1L))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+}
@@ -0,0 +1,90 @@
+package com.abuzar.enrollmentservice.service;
+
+import com.abuzar.enrollmentservice.models.Progress;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "enrollment.progress.group-commit.enabled=true",
+        // Wide enough that concurrent callers share one window
+        "enrollment.progress.group-commit.max-wait=200ms",
+        "enrollment.warmup.enabled=false"
+})
+@ActiveProfiles("local")
+class ProgressWriterGroupCommitTest {
+
+    @Autowired
+    private EnrollmentService service;
+
+    @Autowired
+    private ProgressStore progressStore;
+
+    @Test
+    void concurrentCompletionsAreCommittedForEveryCaller() throws Exception {
+        Long first = service.enroll("group-a", 1L).getEnrollmentId();
+        Long second = service.enroll("group-b", 1L).getEnrollmentId();
+
+        List<Progress> saved = completeConcurrently(List.of(
+                () -> service.markLessonComplete(first, 1L, "group-a", "user"),
+                () -> service.markLessonComplete(first, 2L, "group-a", "user"),
+                () -> service.markLessonComplete(first, 3L, "group-a", "user"),
+                () -> service.markLessonComplete(second, 1L, "group-b", "user"),
+                () -> service.markLessonComplete(second, 2L, "group-b", "user"),
+                // The same lesson twice in one window
+                () -> service.markLessonComplete(first, 1L, "group-a", "user")));
+
+        assertThat(saved).allMatch(p -> p.getProgressId() != null && p.isCompleted());
+        assertThat(saved.get(5).getProgressId()).isEqualTo(saved.get(0).getProgressId());
+        assertThat(progressStore.completedLessonIds(first)).containsExactlyInAnyOrder(1L, 2L, 3L);
+        assertThat(progressStore.completedLessonIds(second)).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    void alreadyCompletedLessonInABatchReturnsTheExistingRow() throws Exception {
+        Long enrollmentId = service.enroll("group-c", 1L).getEnrollmentId();
+        Progress existing = service.markLessonComplete(enrollmentId, 7L, "group-c", "user");
+
+        List<Progress> saved = completeConcurrently(List.of(
+                () -> service.markLessonComplete(enrollmentId, 7L, "group-c", "user"),
+                () -> service.markLessonComplete(enrollmentId, 8L, "group-c", "user")));
+
+        assertThat(saved.get(0).getProgressId()).isEqualTo(existing.getProgressId());
+        assertThat(saved.get(1).getProgressId()).isNotNull().isNotEqualTo(existing.getProgressId());
+        assertThat(progressStore.completedLessonIds(enrollmentId)).containsExactlyInAnyOrder(7L, 8L);
+    }
+
+    private static List<Progress> completeConcurrently(List<Callable<Progress>> completions) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(completions.size());
+        try {
+            List<Future<Progress>> futures = new ArrayList<>();
+            for (Callable<Progress> completion : completions) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return completion.call();
+                }));
+            }
+            start.countDown();
+            List<Progress> saved = new ArrayList<>();
+            for (Future<Progress> f : futures) {
+                saved.add(f.get(30, TimeUnit.SECONDS));
+            }
+            return saved;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
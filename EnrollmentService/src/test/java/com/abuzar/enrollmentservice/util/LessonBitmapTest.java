@@ -0,0 +1,84 @@
+package com.abuzar.enrollmentservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LessonBitmapTest {
+
+    @Test
+    void emptyRoundTrips() {
+        assertThat(LessonBitmap.decode(null).cardinality()).isZero();
+        assertThat(LessonBitmap.decode(new byte[0]).cardinality()).isZero();
+        assertThat(LessonBitmap.decode(LessonBitmap.empty().encode()).lessonIds()).isEmpty();
+    }
+
+    @Test
+    void denseCourseIsDeflatedToAFewBytes() {
+        LessonBitmap bitmap = LessonBitmap.empty();
+        LongStream.rangeClosed(10_000, 10_300).forEach(bitmap::add);
+
+        byte[] encoded = bitmap.encode();
+        LessonBitmap decoded = LessonBitmap.decode(encoded);
+
+        assertThat(encoded.length).isLessThan(40);
+        assertThat(encoded[0]).as("deflated flag").isEqualTo((byte) 1);
+        assertThat(decoded.cardinality()).isEqualTo(301);
+        assertThat(decoded.lessonIds()).containsExactlyElementsOf(LongStream.rangeClosed(10_000, 10_300).boxed().toList());
+        assertThat(decoded.contains(9_999)).isFalse();
+        assertThat(decoded.contains(10_301)).isFalse();
+    }
+
+    @Test
+    void smallSetIsStoredRawWhenDeflateDoesNotPay() {
+        LessonBitmap bitmap = LessonBitmap.empty();
+        bitmap.add(42);
+        bitmap.add(45);
+
+        byte[] encoded = bitmap.encode();
+
+        assertThat(encoded[0]).as("deflated flag").isZero();
+        assertThat(LessonBitmap.decode(encoded).lessonIds()).containsExactly(42L, 45L);
+    }
+
+    @Test
+    void addingBelowTheBaseKeepsExistingLessons() {
+        LessonBitmap bitmap = LessonBitmap.empty();
+        assertThat(bitmap.add(500)).isTrue();
+        assertThat(bitmap.add(503)).isTrue();
+        assertThat(bitmap.add(100)).isTrue();
+        assertThat(bitmap.add(503)).isFalse();
+
+        LessonBitmap decoded = LessonBitmap.decode(bitmap.encode());
+
+        assertThat(decoded.lessonIds()).containsExactly(100L, 500L, 503L);
+        assertThat(decoded.add(100)).isFalse();
+        assertThat(decoded.add(101)).isTrue();
+    }
+
+    @Test
+    void rejectsNegativeAndTooDistantIds() {
+        LessonBitmap bitmap = LessonBitmap.empty();
+        bitmap.add(LessonBitmap.MAX_SPAN);
+
+        assertThatThrownBy(() -> bitmap.add(-1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> bitmap.add(2L * LessonBitmap.MAX_SPAN)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> bitmap.add(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(bitmap.lessonIds()).containsExactly((long) LessonBitmap.MAX_SPAN);
+    }
+
+    @Test
+    void truncatedDataIsReportedAsCorrupt() {
+        LessonBitmap bitmap = LessonBitmap.empty();
+        LongStream.range(0, 5_000).filter(id -> id % 3 == 0).forEach(bitmap::add);
+        byte[] encoded = bitmap.encode();
+
+        byte[] truncated = Arrays.copyOf(encoded, encoded.length / 2);
+
+        assertThatThrownBy(() -> LessonBitmap.decode(truncated)).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,97 @@
+package com.abuzar.enrollmentservice.util;
+
+import com.abuzar.enrollmentservice.exception.RetryLaterException;
+import com.abuzar.enrollmentservice.util.RateLimiter.Group;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    // lessons: 3 burst at 10/s; listing: 2 burst at 5/s; certificate: 5 burst at 0.2/s
+    private final RateLimiter limiter = new RateLimiter(Duration.ofMinutes(10), 1000,
+            3, 10, 2, 5, 5, 0.2, 60, 20);
+
+    private final long start = System.nanoTime();
+
+    @Test
+    void fullBucketAllowsTheBurstThenRejects() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("u1", Group.LESSONS, start)).isZero();
+        }
+
+        assertThat(limiter.tryAcquire("u1", Group.LESSONS, start)).isEqualTo(100 * MILLIS);
+        // A rejected request takes no token
+        assertThat(limiter.tryAcquire("u1", Group.LESSONS, start + 40 * MILLIS)).isEqualTo(60 * MILLIS);
+    }
+
+    @Test
+    void tokensRefillAtTheConfiguredRate() {
+        drain("u1", Group.LESSONS, 3);
+
+        assertThat(limiter.tryAcquire("u1", Group.LESSONS, start + 100 * MILLIS)).isZero();
+        assertThat(limiter.tryAcquire("u1", Group.LESSONS, start + 100 * MILLIS)).isEqualTo(100 * MILLIS);
+
+        // Idle long enough to refill completely, but never beyond capacity
+        long later = start + 10_000 * MILLIS;
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("u1", Group.LESSONS, later)).isZero();
+        }
+        assertThat(limiter.tryAcquire("u1", Group.LESSONS, later)).isPositive();
+    }
+
+    @Test
+    void bucketsAreSeparatePerUserAndGroup() {
+        drain("u1", Group.LISTING, 2);
+
+        assertThat(limiter.tryAcquire("u1", Group.LISTING, start)).isPositive();
+        assertThat(limiter.tryAcquire("u2", Group.LISTING, start)).isZero();
+        assertThat(limiter.tryAcquire("u1", Group.DEFAULT, start)).isZero();
+    }
+
+    @Test
+    void waitBecomesRetryAfterInWholeSeconds() {
+        drain("u1", Group.CERTIFICATE, 5);
+
+        long wait = limiter.tryAcquire("u1", Group.CERTIFICATE, start + 1_200 * MILLIS);
+
+        assertThat(wait).isEqualTo(3_800 * MILLIS);
+        assertThat(retryAfter(wait)).isEqualTo("4");
+        drain("u2", Group.LESSONS, 3);
+        assertThat(retryAfter(limiter.tryAcquire("u2", Group.LESSONS, start))).isEqualTo("1");
+    }
+
+    @Test
+    void bucketLookupsArePublished() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        limiter.bindTo(registry);
+
+        limiter.tryAcquire("u1", Group.LESSONS, start);
+        limiter.tryAcquire("u1", Group.LESSONS, start);
+
+        assertThat(registry.get("cache.gets").tags("cache", "rate-limit-buckets", "result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.gets").tags("cache", "rate-limit-buckets", "result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    private void drain(String userId, Group group, int capacity) {
+        for (int i = 0; i < capacity; i++) {
+            assertThat(limiter.tryAcquire(userId, group, start)).isZero();
+        }
+    }
+
+    private static String retryAfter(long waitNanos) {
+        return new RetryLaterException(HttpStatus.TOO_MANY_REQUESTS, "slow down", Duration.ofNanos(waitNanos))
+                .getHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+    }
+}